@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Compares startup time and resident memory of the plain fat jar, the AOT + CDS build and the
+# native image. Expects the databases and Keycloak from docker-compose plus the usual environment.
+#
+#   ./mvnw -Pcds package              -> target/reminder-*.jar and target/cds/application.jsa
+#   ./mvnw -Pnative native:compile    -> target/reminder
+#   scripts/measure-startup.sh
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+TARGET=${TARGET:-target}
+JAR=$(ls "$TARGET"/reminder-*.jar | grep -v original | head -n 1)
+CDS_DIR="$TARGET/cds"
+
+measure() {
+    local variant=$1
+    shift
+    for run in $(seq "$RUNS"); do
+        local log
+        log=$(mktemp)
+        "$@" > "$log" 2>&1 &
+        local pid=$!
+
+        until grep -q "Started ReminderApplication" "$log"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                cat "$log" >&2
+                exit 1
+            fi
+            sleep 0.1
+        done
+
+        local seconds rss
+        seconds=$(grep -o "Started ReminderApplication in [0-9.]* seconds" "$log" | awk '{print $4}')
+        rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+        kill "$pid"
+        wait "$pid" || true
+        rm -f "$log"
+
+        echo "$variant,$run,$seconds,$((rss / 1024))"
+    done
+}
+
+echo "variant,run,startup_seconds,rss_mib"
+measure fat-jar java -jar "$JAR"
+
+if [ -f "$CDS_DIR/application.jsa" ]; then
+    measure aot-cds java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Dspring.aot.enabled=true \
+        -jar "$CDS_DIR/$(basename "$JAR")"
+fi
+
+if [ -x "$TARGET/reminder" ]; then
+    measure native "$TARGET/reminder"
+fi
@@ -0,0 +1,102 @@
+package ru.mal.reminder.repository.specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+import ru.mal.reminder.dto.reminder.SearchRequest;
+import ru.mal.reminder.model.Reminder;
+import ru.mal.reminder.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReminderSpecificationBenchmark {
+
+    private static final Long USER_ID = 42L;
+
+    @Param({"none", "title", "all"})
+    public String filters;
+
+    private SearchRequest searchRequest;
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        searchRequest = new SearchRequest();
+        if (!"none".equals(filters)) {
+            searchRequest.setTitle("Meeting");
+        }
+        if ("all".equals(filters)) {
+            searchRequest.setDescription("project");
+            searchRequest.setDateFrom(LocalDateTime.of(2024, 1, 1, 0, 0));
+            searchRequest.setDateTo(LocalDateTime.of(2024, 12, 31, 23, 59));
+        }
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:jmh;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Reminder.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Specification<Reminder> buildSearchSpecification() {
+        return ReminderSpecification.buildSearchSpecification(searchRequest, USER_ID);
+    }
+
+    // Criteria queries are not plan-cached by Hibernate, so every call pays SQM and SQL translation.
+    // The table is empty; execution itself is negligible next to rendering.
+    @Benchmark
+    public List<Reminder> buildAndRenderQuery() {
+        Specification<Reminder> spec = ReminderSpecification.buildSearchSpecification(searchRequest, USER_ID);
+
+        try (Session session = sessionFactory.openSession()) {
+            CriteriaBuilder cb = session.getCriteriaBuilder();
+            CriteriaQuery<Reminder> query = cb.createQuery(Reminder.class);
+            Root<Reminder> root = query.from(Reminder.class);
+            query.where(spec.toPredicate(root, query, cb));
+            query.orderBy(cb.desc(root.get("remindDate")));
+
+            return session.createQuery(query)
+                    .setMaxResults(10)
+                    .getResultList();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.mal.reminder.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import ru.mal.reminder.config.DispatcherProperties;
+import ru.mal.reminder.model.Reminder;
+import ru.mal.reminder.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Reminder> reminders(int count, boolean due) {
+        User user = new User("keycloak-id", "user@example.com", "user");
+        user.setId(1L);
+        user.setChatId("12345");
+
+        LocalDateTime base = due ? LocalDateTime.now().minusHours(1) : LocalDateTime.now().plusDays(1);
+        List<Reminder> reminders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Reminder reminder = new Reminder(
+                    "Reminder " + i,
+                    "Description of reminder number " + i + " with some text to format",
+                    base.plusSeconds(i),
+                    user
+            );
+            reminder.setId((long) i + 1);
+            reminder.setVersion(0L);
+            reminders.add(reminder);
+        }
+        return reminders;
+    }
+
+    static MessageSource messageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        return messageSource;
+    }
+
+    static DispatcherProperties dispatcherProperties() {
+        return new DispatcherProperties(500, 50, Duration.ofMinutes(5), Duration.ofHours(6), DispatcherProperties.StalePolicy.SEND, 10);
+    }
+
+    static RecordingTelegramService telegramService() {
+        return new RecordingTelegramService();
+    }
+
+    static class RecordingTelegramService extends TelegramService {
+
+        volatile String lastText;
+
+        RecordingTelegramService() {
+            super(null, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public void sendMessage(String chatId, String text) {
+            lastText = text;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.mal.reminder.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.mal.reminder.model.Reminder;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatcherLoopBenchmark {
+
+    @Param({"100", "1000"})
+    public int dueReminders;
+
+    private List<Reminder> reminders;
+    private ReminderNotificationService notificationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reminders = BenchmarkData.reminders(dueReminders, true);
+        notificationService = new ReminderNotificationService(
+                InMemoryReminderRepository.create(reminders),
+                BenchmarkData.telegramService(),
+                BenchmarkData.messageSource(),
+                new SimpleMeterRegistry(),
+                Clock.systemDefaultZone(),
+                TransactionOperations.withoutTransaction(),
+                BenchmarkData.dispatcherProperties(),
+                Optional.empty()
+        );
+    }
+
+    @Setup(Level.Invocation)
+    public void markDue() {
+        for (Reminder reminder : reminders) {
+            reminder.setNotified(false);
+        }
+    }
+
+    @Benchmark
+    public void checkDueReminders() {
+        notificationService.checkDueReminders();
+    }
+}
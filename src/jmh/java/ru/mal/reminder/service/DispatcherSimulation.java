@@ -0,0 +1,276 @@
+package ru.mal.reminder.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.mal.reminder.model.Reminder;
+import ru.mal.reminder.model.User;
+import ru.mal.reminder.repository.ReminderRepository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a synthetic day of reminders through the real {@link ReminderNotificationService}
+ * on a virtual clock. The clock only moves between scheduler ticks and by the simulated cost
+ * of every Telegram send, so a day with a morning spike runs in seconds of wall time.
+ * <p>
+ * Tunables are system properties: {@code sim.spike} reminders due at {@code sim.spike-at},
+ * {@code sim.background} reminders spread over the day, both owned round-robin by {@code sim.users}
+ * users, {@code sim.interval-ms} between dispatcher runs and {@code sim.send-cost-micros} of virtual
+ * time per message. Chunking follows the {@code reminder.dispatcher.*} defaults.
+ */
+public final class DispatcherSimulation {
+
+    private DispatcherSimulation() {
+    }
+
+    public static void main(String[] args) {
+        int spike = Integer.getInteger("sim.spike", 500_000);
+        int background = Integer.getInteger("sim.background", 50_000);
+        int users = Integer.getInteger("sim.users", 10_000);
+        LocalTime spikeAt = LocalTime.parse(System.getProperty("sim.spike-at", "09:00"));
+        Duration interval = Duration.ofMillis(Long.getLong("sim.interval-ms", 60_000));
+        Duration sendCost = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Long.getLong("sim.send-cost-micros", 2_000)));
+
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        LocalDateTime spikeDue = day.atTime(spikeAt);
+        LocalDateTime endOfDay = day.plusDays(1).atStartOfDay();
+
+        SimulatedClock clock = new SimulatedClock(day.atStartOfDay().toInstant(ZoneOffset.UTC));
+        List<Reminder> reminders = reminders(spike, background, users, spikeDue, day);
+        SimulatedTelegramService telegramService = new SimulatedTelegramService(clock, sendCost);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SortedReminderRepository repository = new SortedReminderRepository(reminders, clock, spikeDue);
+        ReminderNotificationService dispatcher = new ReminderNotificationService(
+                repository.proxy(),
+                telegramService,
+                BenchmarkData.messageSource(),
+                meterRegistry,
+                clock,
+                TransactionOperations.withoutTransaction(),
+                BenchmarkData.dispatcherProperties(),
+                Optional.empty()
+        );
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long peakHeap = memory.getHeapMemoryUsage().getUsed();
+        long runs = 0;
+        long wallStarted = System.nanoTime();
+
+        while (clock.now().isBefore(endOfDay) || repository.pending()) {
+            LocalDateTime runStarted = clock.now();
+            dispatcher.checkDueReminders();
+            runs++;
+            peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+
+            // fixedRate: the next run starts one interval after the previous start, or right away if it overran
+            LocalDateTime next = runStarted.plus(interval);
+            clock.advanceTo(next.isAfter(clock.now()) ? next : clock.now());
+        }
+
+        long wallTime = System.nanoTime() - wallStarted;
+        Timer lag = meterRegistry.get("reminder.dispatch.lag").timer();
+
+        System.out.printf("reminders: %d (spike %d at %s, background %d) for %d users, interval %d ms, send cost %d us%n",
+                reminders.size(), spike, spikeAt, background, users, interval.toMillis(), sendCost.toNanos() / 1_000);
+        System.out.printf("dispatcher runs: %d, wall time: %d ms%n", runs, TimeUnit.NANOSECONDS.toMillis(wallTime));
+        System.out.printf("messages sent: %d%n", telegramService.sent);
+        if (repository.lastSpikeNotified != null) {
+            System.out.printf("spike drain time: %s%n", Duration.between(spikeDue, repository.lastSpikeNotified));
+        }
+        System.out.printf("peak heap used: %d MiB%n", peakHeap / (1024 * 1024));
+        System.out.printf("lag: count %d, mean %.0f ms, max %.0f ms%n",
+                lag.count(), lag.mean(TimeUnit.MILLISECONDS), lag.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : lag.takeSnapshot().percentileValues()) {
+            System.out.printf("lag p%s: %.0f ms%n",
+                    trimPercentile(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static List<Reminder> reminders(int spike, int background, int users, LocalDateTime spikeDue, LocalDate day) {
+        List<User> owners = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            owners.add(user(i + 1L));
+        }
+        Random random = new Random(42);
+        long secondsPerDay = Duration.ofDays(1).toSeconds();
+
+        List<Reminder> reminders = new ArrayList<>(spike + background);
+        for (int i = 0; i < spike; i++) {
+            reminders.add(reminder(reminders.size() + 1, spikeDue, owners.get(i % users)));
+        }
+        for (int i = 0; i < background; i++) {
+            LocalDateTime due = day.atStartOfDay().plusSeconds(random.nextLong(secondsPerDay));
+            reminders.add(reminder(reminders.size() + 1, due, owners.get(random.nextInt(users))));
+        }
+        reminders.sort(Comparator.comparing(Reminder::getRemindDate).thenComparing(Reminder::getId));
+        return reminders;
+    }
+
+    private static User user(long id) {
+        User user = new User("keycloak-id-" + id, "user" + id + "@example.com", "user" + id);
+        user.setId(id);
+        user.setChatId(String.valueOf(id));
+        return user;
+    }
+
+    private static Reminder reminder(long id, LocalDateTime due, User user) {
+        Reminder reminder = new Reminder("Reminder " + id, "Simulated reminder " + id, due, user);
+        reminder.setId(id);
+        reminder.setVersion(0L);
+        return reminder;
+    }
+
+    private static String trimPercentile(double percentile) {
+        String value = String.valueOf(percentile * 100);
+        return value.endsWith(".0") ? value.substring(0, value.length() - 2) : value;
+    }
+
+    static final class SimulatedClock extends Clock {
+
+        private Instant instant;
+
+        SimulatedClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        LocalDateTime now() {
+            return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        void advanceTo(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException("The simulated clock is always UTC");
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    static final class SimulatedTelegramService extends TelegramService {
+
+        private final SimulatedClock clock;
+        private final Duration sendCost;
+
+        long sent;
+
+        SimulatedTelegramService(SimulatedClock clock, Duration sendCost) {
+            super(null, new SimpleMeterRegistry());
+            this.clock = clock;
+            this.sendCost = sendCost;
+        }
+
+        @Override
+        public void sendMessage(String chatId, String text) {
+            clock.advance(sendCost);
+            sent++;
+        }
+    }
+
+    // Reminders are sorted by due date, so a cursor past the notified prefix keeps each claim
+    // proportional to the chunk instead of the whole day
+    static final class SortedReminderRepository {
+
+        private final List<Reminder> reminders;
+        private final Map<Long, Reminder> byId = new HashMap<>();
+        private final SimulatedClock clock;
+        private final LocalDateTime spikeDue;
+        private int cursor;
+
+        LocalDateTime lastSpikeNotified;
+
+        SortedReminderRepository(List<Reminder> reminders, SimulatedClock clock, LocalDateTime spikeDue) {
+            this.reminders = reminders;
+            this.clock = clock;
+            this.spikeDue = spikeDue;
+            for (Reminder reminder : reminders) {
+                byId.put(reminder.getId(), reminder);
+            }
+        }
+
+        boolean pending() {
+            skipNotified();
+            return cursor < reminders.size();
+        }
+
+        ReminderRepository proxy() {
+            return (ReminderRepository) Proxy.newProxyInstance(
+                    ReminderRepository.class.getClassLoader(),
+                    new Class<?>[]{ReminderRepository.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "claimDueReminderIds" -> claim((LocalDateTime) args[0], (int) args[2], (int) args[3]);
+                        case "findAllWithUserByIdInAndRemindDateBefore" -> ((Collection<?>) args[0]).stream().map(byId::get).toList();
+                        case "markNotified" -> {
+                            Reminder reminder = byId.get((Long) args[0]);
+                            reminder.setNotified(true);
+                            if (reminder.getRemindDate().equals(spikeDue)) {
+                                lastSpikeNotified = clock.now();
+                            }
+                            yield 1;
+                        }
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> "SortedReminderRepository";
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private List<Long> claim(LocalDateTime now, int perUser, int limit) {
+            skipNotified();
+            Map<Long, Integer> claimedPerUser = new HashMap<>();
+            List<Long> ids = new ArrayList<>(limit);
+            for (int i = cursor; i < reminders.size() && ids.size() < limit; i++) {
+                Reminder reminder = reminders.get(i);
+                if (!reminder.getRemindDate().isBefore(now)) {
+                    break;
+                }
+                if (!reminder.getNotified()
+                        && claimedPerUser.merge(reminder.getUser().getId(), 1, Integer::sum) <= perUser) {
+                    ids.add(reminder.getId());
+                }
+            }
+            return ids;
+        }
+
+        private void skipNotified() {
+            while (cursor < reminders.size() && reminders.get(cursor).getNotified()) {
+                cursor++;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.mal.reminder.service;
+
+import ru.mal.reminder.model.Reminder;
+import ru.mal.reminder.repository.ReminderRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+final class InMemoryReminderRepository {
+
+    private InMemoryReminderRepository() {
+    }
+
+    static ReminderRepository create(List<Reminder> reminders) {
+        Map<Long, Reminder> byId = reminders.stream()
+                .collect(Collectors.toMap(Reminder::getId, Function.identity()));
+        return (ReminderRepository) Proxy.newProxyInstance(
+                ReminderRepository.class.getClassLoader(),
+                new Class<?>[]{ReminderRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "claimDueReminderIds" -> claim(reminders, (LocalDateTime) args[0], (int) args[2], (int) args[3]);
+                    case "findAllWithUserByIdInAndRemindDateBefore" -> ((Collection<?>) args[0]).stream()
+                            .map(byId::get)
+                            .toList();
+                    case "markStaleNotified" -> {
+                        int marked = 0;
+                        for (Reminder reminder : reminders) {
+                            if (reminder.getUser().getId().equals(args[0]) && !reminder.getNotified()
+                                    && reminder.getRemindDate().isBefore((LocalDateTime) args[1])) {
+                                reminder.setNotified(true);
+                                marked++;
+                            }
+                        }
+                        yield marked;
+                    }
+                    case "markNotified" -> {
+                        Reminder reminder = byId.get((Long) args[0]);
+                        reminder.setNotified(true);
+                        yield 1;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryReminderRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<Long> claim(List<Reminder> reminders, LocalDateTime now, int perUser, int limit) {
+        Map<Long, Integer> claimedPerUser = new HashMap<>();
+        return reminders.stream()
+                .filter(reminder -> !reminder.getNotified())
+                .filter(reminder -> reminder.getRemindDate().isBefore(now))
+                .filter(reminder -> claimedPerUser.merge(reminder.getUser().getId(), 1, Integer::sum) <= perUser)
+                .limit(limit)
+                .map(Reminder::getId)
+                .toList();
+    }
+}
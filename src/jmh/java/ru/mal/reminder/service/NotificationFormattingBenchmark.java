@@ -0,0 +1,52 @@
+package ru.mal.reminder.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.mal.reminder.model.Reminder;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationFormattingBenchmark {
+
+    private ReminderNotificationService notificationService;
+    private Reminder reminder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        notificationService = new ReminderNotificationService(
+                null,
+                BenchmarkData.telegramService(),
+                BenchmarkData.messageSource(),
+                new SimpleMeterRegistry(),
+                Clock.systemDefaultZone(),
+                TransactionOperations.withoutTransaction(),
+                BenchmarkData.dispatcherProperties(),
+                Optional.empty()
+        );
+        reminder = BenchmarkData.reminders(1, false).get(0);
+    }
+
+    @Benchmark
+    public void sendTelegramNotification() {
+        notificationService.sendTelegramNotification(reminder);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.mal.reminder.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.mal.reminder.dto.reminder.PageResponse;
+import ru.mal.reminder.dto.reminder.ReminderResponse;
+import ru.mal.reminder.model.Reminder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReminderResponseBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ReminderService reminderService;
+    private ObjectMapper objectMapper;
+    private List<Reminder> reminders;
+    private PageResponse<ReminderResponse> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reminderService = new ReminderService(null, null, null, null, null);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reminders = BenchmarkData.reminders(pageSize, false);
+        page = mapPage();
+    }
+
+    @Benchmark
+    public PageResponse<ReminderResponse> mapToResponse() {
+        return mapPage();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapPage());
+    }
+
+    private PageResponse<ReminderResponse> mapPage() {
+        List<ReminderResponse> content = reminders.stream()
+                .map(reminderService::mapToResponse)
+                .toList();
+        return new PageResponse<>(content, 1_000L, 0, pageSize, 1_000 / pageSize);
+    }
+}
@@ -3,6 +3,7 @@ package ru.mal.reminder;
 public class Consts {
 
     public static final String TOKEN_PATH = "/protocol/openid-connect/token";
+    public static final String JWKS_PATH = "/protocol/openid-connect/certs";
     public static final String GRANT_TYPE_PASSWORD = "password";
     public static final String CLIENT_ID_PARAM = "client_id";
     public static final String CLIENT_SECRET_PARAM = "client_secret";
@@ -10,13 +11,16 @@ public class Consts {
     public static final String USERNAME_PARAM = "username";
     public static final String PASSWORD_PARAM = "password";
     public static final String USER_ROLE = "user";
+    public static final String ADMIN_ROLE = "admin";
+    public static final String MONITORING_ROLE = "monitoring";
     public static final String REALMS_PATH = "/realms/";
     public static final String ADMIN_REALMS_PATH = "/admin/realms/";
     public static final String USERS_PATH = "/users/";
     public static final String ROLES_PATH = "/roles/";
-    public static final String RESET_PASSWORD_PATH = "/reset-password";
     public static final String ROLE_MAPPINGS_PATH = "/role-mappings/realm";
+    public static final String PARTIAL_IMPORT_PATH = "/partialImport";
     public static final String ADMIN_TOKEN_PATH = "/realms/master/protocol/openid-connect/token";
     public static final String KEYCLOAK_HEADER = "X-Keycloak-Id";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
 }
@@ -0,0 +1,108 @@
+package ru.mal.reminder.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Component;
+import ru.mal.reminder.dto.TokenResponse;
+import ru.mal.reminder.util.SingleFlight;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+public class KeycloakAdminTokenManager {
+
+    private static final String ADMIN_TOKEN = "admin";
+    private static final int DEFAULT_EXPIRES_IN_SECONDS = 60;
+
+    private final KeycloakClient keycloakClient;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+    private final double refreshRatio;
+    private final Duration expirySkew;
+
+    private final SingleFlight<String, CachedToken> refreshes = new SingleFlight<>();
+    private final AtomicBoolean backgroundRefreshScheduled = new AtomicBoolean();
+    private volatile CachedToken current;
+
+    public KeycloakAdminTokenManager(KeycloakClient keycloakClient,
+                                     @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor refreshExecutor,
+                                     Clock clock,
+                                     @Value("${keycloak.admin-token.refresh-ratio:0.75}") double refreshRatio,
+                                     @Value("${keycloak.admin-token.expiry-skew:5s}") Duration expirySkew) {
+        this.keycloakClient = keycloakClient;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+        this.refreshRatio = refreshRatio;
+        this.expirySkew = expirySkew;
+    }
+
+    public String getAccessToken() {
+        CachedToken token = current;
+        Instant now = clock.instant();
+
+        if (token == null || !now.isBefore(token.expiresAt())) {
+            return refresh().accessToken();
+        }
+        if (!now.isBefore(token.refreshAt())) {
+            refreshInBackground();
+        }
+        return token.accessToken();
+    }
+
+    public void invalidate() {
+        current = null;
+    }
+
+    private CachedToken refresh() {
+        return refreshes.execute(ADMIN_TOKEN, () -> {
+            Instant issuedAt = clock.instant();
+            TokenResponse response = keycloakClient.adminLogin();
+            CachedToken token = CachedToken.of(response, issuedAt, refreshRatio, expirySkew);
+            current = token;
+            return token;
+        });
+    }
+
+    private void refreshInBackground() {
+        if (!backgroundRefreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of Keycloak admin token failed: {}", e.getMessage());
+                } finally {
+                    backgroundRefreshScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            backgroundRefreshScheduled.set(false);
+        }
+    }
+
+    private record CachedToken(String accessToken, Instant refreshAt, Instant expiresAt) {
+
+        static CachedToken of(TokenResponse response, Instant issuedAt, double refreshRatio, Duration expirySkew) {
+            int expiresIn = response.getExpiresIn() != null ? response.getExpiresIn() : DEFAULT_EXPIRES_IN_SECONDS;
+            Duration lifetime = Duration.ofSeconds(expiresIn);
+            Instant expiresAt = issuedAt.plus(lifetime).minus(expirySkew);
+            Instant refreshAt = issuedAt.plusMillis((long) (lifetime.toMillis() * refreshRatio));
+
+            return new CachedToken(
+                    response.getAccessToken(),
+                    refreshAt.isBefore(expiresAt) ? refreshAt : expiresAt,
+                    expiresAt
+            );
+        }
+    }
+}
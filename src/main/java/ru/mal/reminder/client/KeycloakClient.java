@@ -1,5 +1,7 @@
 package ru.mal.reminder.client;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
@@ -8,10 +10,13 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 import ru.mal.reminder.config.KeycloakProperties;
-import ru.mal.reminder.dto.keycloak.KeycloakCredentialsRepresentation;
+import ru.mal.reminder.dto.keycloak.KeycloakPartialImportRequest;
+import ru.mal.reminder.dto.keycloak.KeycloakPartialImportResponse;
 import ru.mal.reminder.dto.keycloak.KeycloakUserRepresentation;
 import ru.mal.reminder.dto.TokenResponse;
+import ru.mal.reminder.util.SingleFlight;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 
@@ -22,8 +27,16 @@ import static ru.mal.reminder.Consts.*;
 @RequiredArgsConstructor
 public class KeycloakClient {
 
+    private static final Duration ROLE_CACHE_TTL = Duration.ofHours(1);
+
     private final RestTemplate restTemplate;
     private final KeycloakProperties properties;
+    private final KeycloakGuard guard;
+
+    private final Cache<String, Object> roleCache = Caffeine.newBuilder()
+            .expireAfterWrite(ROLE_CACHE_TTL)
+            .build();
+    private final SingleFlight<String, Object> roleLookups = new SingleFlight<>();
 
     public TokenResponse adminLogin() {
         String tokenUrl = properties.serverUrl() + ADMIN_TOKEN_PATH;
@@ -39,7 +52,8 @@ public class KeycloakClient {
 
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
 
-        ResponseEntity<TokenResponse> response = restTemplate.postForEntity(tokenUrl, request, TokenResponse.class);
+        ResponseEntity<TokenResponse> response = guard.call("adminLogin",
+                () -> restTemplate.postForEntity(tokenUrl, request, TokenResponse.class));
 
         if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
             return response.getBody();
@@ -57,7 +71,8 @@ public class KeycloakClient {
 
         HttpEntity<KeycloakUserRepresentation> request = new HttpEntity<>(user, headers);
 
-        ResponseEntity<Void> response = restTemplate.postForEntity(userRegistrationUrl, request, Void.class);
+        ResponseEntity<Void> response = guard.call("registerUser",
+                () -> restTemplate.postForEntity(userRegistrationUrl, request, Void.class));
 
         if (response.getStatusCode() == HttpStatus.CREATED) {
             String location = Objects.requireNonNull(response.getHeaders().getLocation()).toString();
@@ -67,37 +82,66 @@ public class KeycloakClient {
         }
     }
 
-    public void resetUserPassword(String userId, KeycloakCredentialsRepresentation credentials, String adminToken) {
-        String passwordResetUrl = properties.serverUrl() + ADMIN_REALMS_PATH + properties.realm() + USERS_PATH + userId + RESET_PASSWORD_PATH;
+    public KeycloakPartialImportResponse partialImport(String adminToken, KeycloakPartialImportRequest importRequest) {
+        String partialImportUrl = properties.serverUrl() + ADMIN_REALMS_PATH + properties.realm() + PARTIAL_IMPORT_PATH;
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setBearerAuth(adminToken);
 
-        HttpEntity<KeycloakCredentialsRepresentation> request = new HttpEntity<>(credentials, headers);
+        HttpEntity<KeycloakPartialImportRequest> request = new HttpEntity<>(importRequest, headers);
+
+        ResponseEntity<KeycloakPartialImportResponse> response = guard.call("partialImport",
+                () -> restTemplate.postForEntity(partialImportUrl, request, KeycloakPartialImportResponse.class));
+
+        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+            return response.getBody();
+        } else {
+            throw new RuntimeException();
+        }
+    }
 
-        restTemplate.put(passwordResetUrl, request);
+    // Not Cache.get(key, loader): Caffeine runs the loader inside ConcurrentHashMap.compute, which holds a
+    // monitor for the whole HTTP call and pins the carrier when running on virtual threads.
+    public Object getRealmRole(String roleName, String adminToken) {
+        Object cached = roleCache.getIfPresent(roleName);
+        if (cached != null) {
+            return cached;
+        }
+        return roleLookups.execute(roleName, () -> {
+            Object roleRepresentation = fetchRealmRole(roleName, adminToken);
+            if (roleRepresentation != null) {
+                roleCache.put(roleName, roleRepresentation);
+            }
+            return roleRepresentation;
+        });
     }
 
-    public void assignUserRole(String userId, String roleName, String adminToken) {
+    public void assignUserRoles(String userId, List<Object> roleRepresentations, String adminToken) {
         String rolesUrl = properties.serverUrl() + ADMIN_REALMS_PATH + properties.realm() + USERS_PATH + userId + ROLE_MAPPINGS_PATH;
-        String roleUrl = properties.serverUrl() + ADMIN_REALMS_PATH + properties.realm() + ROLES_PATH + roleName;
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setBearerAuth(adminToken);
 
-        HttpEntity<Void> getRequest = new HttpEntity<>(headers);
-        ResponseEntity<Object> roleResponse = restTemplate.exchange(
-                roleUrl, HttpMethod.GET, getRequest, Object.class);
+        HttpEntity<List<Object>> assignRequest = new HttpEntity<>(roleRepresentations, headers);
+        guard.run("assignUserRoles", () -> restTemplate.postForEntity(rolesUrl, assignRequest, Void.class));
+    }
+
+    private Object fetchRealmRole(String roleName, String adminToken) {
+        String roleUrl = properties.serverUrl() + ADMIN_REALMS_PATH + properties.realm() + ROLES_PATH + roleName;
 
-        if (roleResponse.getStatusCode() == HttpStatus.OK && roleResponse.getBody() != null) {
-            Object roleRepresentation = roleResponse.getBody();
-            List<Object> rolesList = List.of(roleRepresentation);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(adminToken);
+
+        HttpEntity<Void> getRequest = new HttpEntity<>(headers);
+        ResponseEntity<Object> roleResponse = guard.call("getRealmRole",
+                () -> restTemplate.exchange(roleUrl, HttpMethod.GET, getRequest, Object.class));
 
-            HttpEntity<List<Object>> assignRequest = new HttpEntity<>(rolesList, headers);
-            restTemplate.postForEntity(rolesUrl, assignRequest, Void.class);
+        if (roleResponse.getStatusCode() == HttpStatus.OK) {
+            return roleResponse.getBody();
         }
+        return null;
     }
 
     public TokenResponse userLogin(String username, String password) {
@@ -115,8 +159,8 @@ public class KeycloakClient {
 
         HttpEntity<MultiValueMap<String, String>> tokenRequest = new HttpEntity<>(formData, headers);
 
-        ResponseEntity<TokenResponse> response = restTemplate.postForEntity(
-                tokenUrl, tokenRequest, TokenResponse.class);
+        ResponseEntity<TokenResponse> response = guard.call("userLogin",
+                () -> restTemplate.postForEntity(tokenUrl, tokenRequest, TokenResponse.class));
 
         if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
             return response.getBody();
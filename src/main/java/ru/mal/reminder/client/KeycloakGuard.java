@@ -0,0 +1,120 @@
+package ru.mal.reminder.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import ru.mal.reminder.config.KeycloakResilienceProperties;
+import ru.mal.reminder.jfr.KeycloakCallEvent;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class KeycloakGuard {
+
+    private static final String NAME = "keycloak";
+    private static final String REQUESTS_TIMER = "keycloak.client.requests";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final MessageSource messageSource;
+    private final MeterRegistry meterRegistry;
+
+    public KeycloakGuard(KeycloakResilienceProperties properties, MessageSource messageSource, MeterRegistry meterRegistry) {
+        this.messageSource = messageSource;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = Bulkhead.of(NAME, BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.maxConcurrentCalls())
+                .maxWaitDuration(properties.maxWaitDuration())
+                .build());
+        this.circuitBreaker = CircuitBreaker.of(NAME, CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.failureRateThreshold())
+                .slowCallDurationThreshold(properties.slowCallDurationThreshold())
+                .slowCallRateThreshold(properties.slowCallRateThreshold())
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(properties.slidingWindowSize())
+                .minimumNumberOfCalls(properties.minimumNumberOfCalls())
+                .waitDurationInOpenState(properties.waitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.permittedCallsInHalfOpenState())
+                .recordExceptions(ResourceAccessException.class, HttpServerErrorException.class)
+                .build());
+        this.circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> log.warn("Keycloak circuit breaker: {}", event.getStateTransition()));
+
+        Gauge.builder("keycloak.circuitbreaker.open", circuitBreaker, cb -> cb.getState() == CircuitBreaker.State.OPEN ? 1 : 0)
+                .description("1 while the Keycloak circuit breaker is open")
+                .register(meterRegistry);
+        Gauge.builder("keycloak.bulkhead.available", bulkhead, b -> b.getMetrics().getAvailableConcurrentCalls())
+                .description("Free Keycloak bulkhead permits")
+                .register(meterRegistry);
+    }
+
+    public <T> T call(String operation, Supplier<T> supplier) {
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuitBreaker, supplier));
+        KeycloakCallEvent event = new KeycloakCallEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            outcome = "rejected";
+            log.warn("Keycloak call {} rejected: {}", operation, e.getMessage());
+            throw unavailable(e);
+        } catch (ResourceAccessException e) {
+            outcome = "io_error";
+            throw unavailable(e);
+        } catch (HttpClientErrorException e) {
+            outcome = "client_error";
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = e instanceof HttpServerErrorException ? "server_error" : "error";
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.outcome = outcome;
+                event.circuitState = circuitBreaker.getState().name();
+                event.commit();
+            }
+            sample.stop(Timer.builder(REQUESTS_TIMER)
+                    .description("Keycloak admin and token endpoint calls")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    public void run(String operation, Runnable runnable) {
+        call(operation, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    private KeycloakUnavailableException unavailable(Exception cause) {
+        return new KeycloakUnavailableException(
+                messageSource.getMessage("keycloak.unavailable", null, Locale.getDefault()),
+                cause
+        );
+    }
+}
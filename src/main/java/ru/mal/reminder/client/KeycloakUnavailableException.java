@@ -0,0 +1,8 @@
+package ru.mal.reminder.client;
+
+public class KeycloakUnavailableException extends RuntimeException {
+
+    public KeycloakUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -3,14 +3,16 @@ package ru.mal.reminder.config;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
 
 @Configuration
-@EnableConfigurationProperties(KeycloakProperties.class)
+@EnableConfigurationProperties({KeycloakProperties.class, KeycloakResilienceProperties.class, DispatcherProperties.class,
+        ArchiveProperties.class, DispatchOwnershipProperties.class})
 public class AppConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public Clock clock() {
+        return Clock.systemDefaultZone();
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.mal.reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reminder.archive")
+public record ArchiveProperties(
+        @DefaultValue("30d") Duration retention,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("200ms") Duration pause,
+        @DefaultValue("50") int maxBatchesPerRun,
+        @DefaultValue("5s") Duration maxReplicaLag
+) {}
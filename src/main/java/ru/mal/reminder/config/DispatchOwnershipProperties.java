@@ -0,0 +1,16 @@
+package ru.mal.reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reminder.dispatcher.ownership")
+public record DispatchOwnershipProperties(
+        @DefaultValue("false") boolean enabled,
+        String nodeId,
+        @DefaultValue("1024") int buckets,
+        @DefaultValue("64") int virtualNodes,
+        @DefaultValue("30s") Duration nodeTimeout
+) {
+}
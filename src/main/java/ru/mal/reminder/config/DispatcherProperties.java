@@ -0,0 +1,23 @@
+package ru.mal.reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reminder.dispatcher")
+public record DispatcherProperties(
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("50") int perUserChunkLimit,
+        @DefaultValue("5m") Duration claimTimeout,
+        @DefaultValue("6h") Duration staleAfter,
+        @DefaultValue("SEND") StalePolicy stalePolicy,
+        @DefaultValue("10") int digestMaxItems
+) {
+
+    public enum StalePolicy {
+        SEND,
+        DIGEST,
+        SKIP
+    }
+}
@@ -0,0 +1,96 @@
+package ru.mal.reminder.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StringUtils;
+import ru.mal.reminder.security.CachingJwtDecoder;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Clock;
+
+import static ru.mal.reminder.Consts.*;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties({JwtDecoderProperties.class, OAuth2ResourceServerProperties.class})
+public class JwtDecoderConfig {
+
+    private static final int JWKS_SIZE_LIMIT = 50 * 1024;
+
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(JwtDecoderProperties properties,
+                                                OAuth2ResourceServerProperties resourceServerProperties,
+                                                KeycloakProperties keycloakProperties) throws MalformedURLException {
+        DefaultResourceRetriever retriever = new DefaultResourceRetriever(
+                (int) properties.jwksConnectTimeout().toMillis(),
+                (int) properties.jwksReadTimeout().toMillis(),
+                JWKS_SIZE_LIMIT
+        );
+
+        return JWKSourceBuilder.create(URI.create(jwkSetUri(resourceServerProperties, keycloakProperties)).toURL(), retriever)
+                .cache(properties.jwksCacheTtl().toMillis(), properties.jwksRefreshTimeout().toMillis())
+                .refreshAheadCache(properties.jwksRefreshAhead().toMillis(), true)
+                .outageTolerant(properties.jwksOutageTtl().toMillis())
+                .build();
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+                                 JwtDecoderProperties properties,
+                                 OAuth2ResourceServerProperties resourceServerProperties,
+                                 Clock clock) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        String issuerUri = resourceServerProperties.getJwt().getIssuerUri();
+        decoder.setJwtValidator(StringUtils.hasText(issuerUri)
+                ? JwtValidators.createDefaultWithIssuer(issuerUri)
+                : JwtValidators.createDefault());
+
+        return new CachingJwtDecoder(decoder, clock, properties.tokenCacheSize());
+    }
+
+    @Bean
+    public ApplicationRunner jwksPrefetcher(JWKSource<SecurityContext> jwkSource) {
+        return args -> {
+            try {
+                int keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+                log.info("Prefetched {} JWKS keys", keys);
+            } catch (KeySourceException e) {
+                log.warn("JWKS prefetch failed, keys will be loaded on first request: {}", e.getMessage());
+            }
+        };
+    }
+
+    static String jwkSetUri(OAuth2ResourceServerProperties resourceServerProperties, KeycloakProperties keycloakProperties) {
+        OAuth2ResourceServerProperties.Jwt jwt = resourceServerProperties.getJwt();
+        if (StringUtils.hasText(jwt.getJwkSetUri())) {
+            return jwt.getJwkSetUri();
+        }
+        if (StringUtils.hasText(jwt.getIssuerUri())) {
+            return jwt.getIssuerUri() + JWKS_PATH;
+        }
+        return keycloakProperties.serverUrl() + REALMS_PATH + keycloakProperties.realm() + JWKS_PATH;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.mal.reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reminder.jwt")
+public record JwtDecoderProperties(
+        @DefaultValue("15m") Duration jwksCacheTtl,
+        @DefaultValue("1m") Duration jwksRefreshAhead,
+        @DefaultValue("5s") Duration jwksRefreshTimeout,
+        @DefaultValue("6h") Duration jwksOutageTtl,
+        @DefaultValue("2s") Duration jwksConnectTimeout,
+        @DefaultValue("2s") Duration jwksReadTimeout,
+        @DefaultValue("10000") long tokenCacheSize
+) {}
@@ -0,0 +1,68 @@
+package ru.mal.reminder.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+@EnableConfigurationProperties(KeycloakHttpProperties.class)
+public class KeycloakHttpClientConfig {
+
+    private static final String POOL_NAME = "keycloak";
+
+    @Bean
+    public PoolingHttpClientConnectionManager keycloakConnectionManager(KeycloakHttpProperties properties) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.connectTimeout()))
+                .setSocketTimeout(Timeout.of(properties.readTimeout()))
+                .setTimeToLive(TimeValue.of(properties.connectionTimeToLive()))
+                .setValidateAfterInactivity(TimeValue.of(properties.keepAlive()))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.maxConnectionsTotal())
+                .setMaxConnPerRoute(properties.maxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean
+    public CloseableHttpClient keycloakHttpClient(PoolingHttpClientConnectionManager keycloakConnectionManager,
+                                                  KeycloakHttpProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.connectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(properties.readTimeout()))
+                .setConnectionKeepAlive(TimeValue.of(properties.keepAlive()))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(keycloakConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.keepAlive()))
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate keycloakRestTemplate(CloseableHttpClient keycloakHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(keycloakHttpClient));
+    }
+
+    @Bean
+    public MeterBinder keycloakConnectionPoolMetrics(PoolingHttpClientConnectionManager keycloakConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(keycloakConnectionManager, POOL_NAME);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.mal.reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "keycloak.http")
+public record KeycloakHttpProperties(
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("5s") Duration readTimeout,
+        @DefaultValue("1s") Duration connectionRequestTimeout,
+        @DefaultValue("30s") Duration keepAlive,
+        @DefaultValue("5m") Duration connectionTimeToLive,
+        @DefaultValue("20") int maxConnectionsTotal,
+        @DefaultValue("20") int maxConnectionsPerRoute
+) {}
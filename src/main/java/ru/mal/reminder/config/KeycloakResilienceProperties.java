@@ -0,0 +1,19 @@
+package ru.mal.reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "keycloak.resilience")
+public record KeycloakResilienceProperties(
+        @DefaultValue("20") int maxConcurrentCalls,
+        @DefaultValue("100ms") Duration maxWaitDuration,
+        @DefaultValue("50") float failureRateThreshold,
+        @DefaultValue("2s") Duration slowCallDurationThreshold,
+        @DefaultValue("50") float slowCallRateThreshold,
+        @DefaultValue("20") int slidingWindowSize,
+        @DefaultValue("10") int minimumNumberOfCalls,
+        @DefaultValue("10s") Duration waitDurationInOpenState,
+        @DefaultValue("3") int permittedCallsInHalfOpenState
+) {}
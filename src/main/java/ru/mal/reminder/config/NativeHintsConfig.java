@@ -0,0 +1,46 @@
+package ru.mal.reminder.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.ApiResponse;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+import ru.mal.reminder.dto.TokenResponse;
+import ru.mal.reminder.dto.keycloak.KeycloakCredentialsRepresentation;
+import ru.mal.reminder.dto.keycloak.KeycloakPartialImportRequest;
+import ru.mal.reminder.dto.keycloak.KeycloakPartialImportResponse;
+import ru.mal.reminder.dto.keycloak.KeycloakUserRepresentation;
+import ru.mal.reminder.dto.reminder.ReminderResponse;
+
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ReminderRuntimeHints.class)
+public class NativeHintsConfig {
+
+    // Controller payloads are discovered by AOT, these only pass through RestTemplate,
+    // the idempotency ObjectMapper or the Telegram client
+    static class ReminderRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    TokenResponse.class,
+                    KeycloakUserRepresentation.class,
+                    KeycloakCredentialsRepresentation.class,
+                    KeycloakPartialImportRequest.class,
+                    KeycloakPartialImportResponse.class,
+                    ReminderResponse.class,
+                    SendMessage.class,
+                    ApiResponse.class,
+                    Message.class);
+
+            hints.resources().registerPattern("db/changelog/*.sql");
+            hints.resources().registerPattern("jfr/*.jfc");
+            hints.resources().registerPattern("hibernate-cache.conf");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.mal.reminder.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+// Replaces the auto-configured DataSource only when a replica is configured. Read-only
+// transactions mark their connection read-only before the first statement, which is when
+// the lazy proxy picks the replica routing target instead of the primary pool.
+@Configuration
+@ConditionalOnProperty(prefix = "reminder.datasource.replica", name = "url")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReadReplicaProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.url())
+                .username(properties.username())
+                .password(properties.password())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(properties.maximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReadReplicaProperties properties, Clock clock) {
+        return new ReadYourWritesTracker(properties.stickyWindow(), properties.trackedUsers(), clock);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        return new ReadYourWritesFilter(readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        return routingDataSource(primaryDataSource, replicaDataSource, readYourWritesTracker);
+    }
+
+    static LazyConnectionDataSourceProxy routingDataSource(DataSource primary, DataSource replica,
+                                                           ReadYourWritesTracker tracker) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReadReplicaRoutingDataSource(primary, replica, tracker));
+        return dataSource;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.mal.reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reminder.datasource.replica")
+public record ReadReplicaProperties(
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("5s") Duration stickyWindow,
+        @DefaultValue("100000") long trackedUsers
+) {}
@@ -0,0 +1,31 @@
+package ru.mal.reminder.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Target for read-only connections: the replica, unless the current user wrote recently.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return tracker.mustReadFromPrimary() ? Target.PRIMARY : Target.REPLICA;
+    }
+}
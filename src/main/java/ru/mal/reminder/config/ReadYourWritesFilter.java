@@ -0,0 +1,31 @@
+package ru.mal.reminder.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import static ru.mal.reminder.Consts.KEYCLOAK_HEADER;
+
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        tracker.bind(request.getHeader(KEYCLOAK_HEADER));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            tracker.unbind();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.mal.reminder.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers which users committed a write recently so their reads stay on the primary
+ * until the replica has had time to catch up. The user is bound per request by
+ * {@link ReadYourWritesFilter}; work without a bound user (scheduler, startup) always
+ * reads from the replica inside read-only transactions.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private final ThreadLocal<String> currentUser = new ThreadLocal<>();
+    private final Cache<String, Instant> lastWrites;
+    private final Duration stickyWindow;
+    private final Clock clock;
+
+    public ReadYourWritesTracker(Duration stickyWindow, long trackedUsers, Clock clock) {
+        this.stickyWindow = stickyWindow;
+        this.clock = clock;
+        this.lastWrites = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(trackedUsers)
+                .build();
+    }
+
+    public void bind(@Nullable String keycloakId) {
+        currentUser.set(keycloakId);
+    }
+
+    public void unbind() {
+        currentUser.remove();
+    }
+
+    public boolean mustReadFromPrimary() {
+        String keycloakId = currentUser.get();
+        if (keycloakId == null) {
+            return false;
+        }
+        Instant lastWrite = lastWrites.getIfPresent(keycloakId);
+        return lastWrite != null && clock.instant().isBefore(lastWrite.plus(stickyWindow));
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        String keycloakId = currentUser.get();
+        if (commitFailure == null && keycloakId != null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+            lastWrites.put(keycloakId, clock.instant());
+        }
+    }
+}
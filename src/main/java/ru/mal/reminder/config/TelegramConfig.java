@@ -1,19 +1,33 @@
 package ru.mal.reminder.config;
 
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.telegram.telegrambots.client.okhttp.OkHttpTelegramClient;
 import org.telegram.telegrambots.meta.generics.TelegramClient;
 
+import java.util.List;
+
 @Configuration
 public class TelegramConfig {
 
     @Value("${telegram.bot.token}")
     private String botToken;
 
+    // api.telegram.org negotiates HTTP/2, and OkHttp's HTTP/2 writer does its socket writes inside
+    // synchronized methods, which pins the carrier when the dispatcher runs on virtual threads.
+    // The HTTP/1.1 codec does no I/O under a monitor.
+    @Bean
+    public OkHttpClient telegramHttpClient() {
+        return new OkHttpClient.Builder()
+                .protocols(List.of(Protocol.HTTP_1_1))
+                .build();
+    }
+
     @Bean
-    public TelegramClient telegramClient() {
-        return new OkHttpTelegramClient(botToken);
+    public TelegramClient telegramClient(OkHttpClient telegramHttpClient) {
+        return new OkHttpTelegramClient(telegramHttpClient, botToken);
     }
-}
\ No newline at end of file
+}
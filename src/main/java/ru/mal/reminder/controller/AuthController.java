@@ -1,13 +1,19 @@
 package ru.mal.reminder.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.mal.reminder.dto.TokenResponse;
 import ru.mal.reminder.dto.UserLoginRequest;
+import ru.mal.reminder.dto.registration.BulkRegistrationRequest;
+import ru.mal.reminder.dto.registration.BulkRegistrationResult;
 import ru.mal.reminder.dto.registration.UserRegistrationRequest;
 import ru.mal.reminder.service.AuthService;
+import ru.mal.reminder.service.BulkRegistrationService;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -15,6 +21,7 @@ import ru.mal.reminder.service.AuthService;
 public class AuthController {
 
     private final AuthService authService;
+    private final BulkRegistrationService bulkRegistrationService;
 
     @PostMapping("/register")
     public ResponseEntity<String> registerUser(@RequestBody UserRegistrationRequest request) {
@@ -22,6 +29,12 @@ public class AuthController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/register/bulk")
+    public ResponseEntity<List<BulkRegistrationResult>> registerUsers(@Valid @RequestBody BulkRegistrationRequest request) {
+        List<BulkRegistrationResult> results = bulkRegistrationService.registerUsers(request.getUsers());
+        return ResponseEntity.ok(results);
+    }
+
     @PostMapping("/login")
     public ResponseEntity<TokenResponse> login(@RequestBody UserLoginRequest request) {
         TokenResponse tokenResponse = authService.login(request);
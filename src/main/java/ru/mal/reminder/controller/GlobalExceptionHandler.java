@@ -1,8 +1,11 @@
 package ru.mal.reminder.controller;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import ru.mal.reminder.client.KeycloakUnavailableException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -13,4 +16,16 @@ public class GlobalExceptionHandler {
                 .body(e.getMessage());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(KeycloakUnavailableException.class)
+    public ResponseEntity<String> handleKeycloakUnavailable(KeycloakUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(e.getMessage());
+    }
+
 }
\ No newline at end of file
@@ -1,16 +1,24 @@
 package ru.mal.reminder.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.mal.reminder.dto.reminder.BatchOperationResult;
+import ru.mal.reminder.dto.reminder.BatchRequest;
 import ru.mal.reminder.dto.reminder.PageResponse;
 import ru.mal.reminder.dto.reminder.ReminderRequest;
 import ru.mal.reminder.dto.reminder.ReminderResponse;
+import ru.mal.reminder.dto.reminder.ReminderSetVersion;
 import ru.mal.reminder.dto.reminder.SearchRequest;
+import ru.mal.reminder.service.IdempotencyService;
 import ru.mal.reminder.service.ReminderService;
 
 import java.util.List;
+import java.util.Objects;
 
+import static ru.mal.reminder.Consts.IDEMPOTENCY_KEY_HEADER;
 import static ru.mal.reminder.Consts.KEYCLOAK_HEADER;
 
 @RestController
@@ -18,17 +26,25 @@ import static ru.mal.reminder.Consts.KEYCLOAK_HEADER;
 public class ReminderController {
 
     private final ReminderService reminderService;
+    private final IdempotencyService idempotencyService;
 
-    public ReminderController(ReminderService reminderService) {
+    public ReminderController(ReminderService reminderService, IdempotencyService idempotencyService) {
         this.reminderService = reminderService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
     public ResponseEntity<ReminderResponse> createReminder(
             @Valid @RequestBody ReminderRequest request,
-            @RequestHeader(KEYCLOAK_HEADER) String keycloakId) {
-        ReminderResponse response = reminderService.createReminder(request, keycloakId);
-        return ResponseEntity.ok(response);
+            @RequestHeader(KEYCLOAK_HEADER) String keycloakId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        ReminderResponse response = idempotencyKey == null
+                ? reminderService.createReminder(request, keycloakId)
+                : idempotencyService.execute(keycloakId, idempotencyKey, ReminderResponse.class,
+                        () -> reminderService.createReminder(request, keycloakId, idempotencyKey));
+        return ResponseEntity.ok()
+                .eTag(reminderEtag(response))
+                .body(response);
 
     }
 
@@ -36,9 +52,12 @@ public class ReminderController {
     public ResponseEntity<ReminderResponse> updateReminder(
             @PathVariable Long id,
             @Valid @RequestBody ReminderRequest request,
-            @RequestHeader(KEYCLOAK_HEADER) String keycloakId) {
-        ReminderResponse response = reminderService.updateReminder(id, request, keycloakId);
-        return ResponseEntity.ok(response);
+            @RequestHeader(KEYCLOAK_HEADER) String keycloakId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ReminderResponse response = reminderService.updateReminder(id, request, keycloakId, parseVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(reminderEtag(response))
+                .body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -52,25 +71,95 @@ public class ReminderController {
     @GetMapping("/{id}")
     public ResponseEntity<ReminderResponse> getReminder(
             @PathVariable Long id,
-            @RequestHeader(KEYCLOAK_HEADER) String keycloakId) {
+            @RequestHeader(KEYCLOAK_HEADER) String keycloakId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         ReminderResponse response = reminderService.getReminderById(id, keycloakId);
-        return ResponseEntity.ok(response);
+        String etag = reminderEtag(response);
+
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(response);
 
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchOperationResult>> processBatch(
+            @Valid @RequestBody BatchRequest request,
+            @RequestHeader(KEYCLOAK_HEADER) String keycloakId) {
+        List<BatchOperationResult> results = reminderService.processBatch(request.getOperations(), keycloakId);
+        return ResponseEntity.ok(results);
+    }
+
     @PostMapping("/search")
     public ResponseEntity<PageResponse<ReminderResponse>> searchReminders(
             @RequestBody SearchRequest searchRequest,
-            @RequestHeader(KEYCLOAK_HEADER) String keycloakId) {
+            @RequestHeader(KEYCLOAK_HEADER) String keycloakId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        ReminderSetVersion setVersion = reminderService.getReminderSetVersion(keycloakId);
+        String etag = searchEtag(setVersion, searchRequest);
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
-        List<ReminderResponse> reminders = reminderService.searchReminders(searchRequest, keycloakId);
-        Long totalCount = reminderService.countReminders(searchRequest, keycloakId);
+        PageResponse<ReminderResponse> response = reminderService.searchPage(searchRequest, keycloakId, setVersion);
 
-        PageResponse<ReminderResponse> response = new PageResponse<>(
-                reminders, totalCount, searchRequest.getPage(),
-                searchRequest.getSize(), (int) Math.ceil((double) totalCount / searchRequest.getSize())
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(response);
+    }
+
+    private static String reminderEtag(ReminderResponse response) {
+        return "\"" + response.getVersion() + "\"";
+    }
+
+    // The set fingerprint changes on every create, update and delete of the user's reminders,
+    // the request hash keeps different filters and pages apart.
+    private static String searchEtag(ReminderSetVersion setVersion, SearchRequest searchRequest) {
+        int requestHash = Objects.hash(
+                searchRequest.getTitle(), searchRequest.getDescription(),
+                searchRequest.getDateFrom(), searchRequest.getDateTo(),
+                searchRequest.getSortBy(), searchRequest.getSortDirection(),
+                searchRequest.getPage(), searchRequest.getSize(), searchRequest.isIncludeArchived()
         );
+        return "W/\"" + setVersion.count() + "-" + Long.toHexString(setVersion.idSum())
+                + "-" + setVersion.versionSum() + "-" + Integer.toHexString(requestHash) + "\"";
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = stripWeakPrefix(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || stripWeakPrefix(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            // If-Match uses strong comparison, a weak tag can never match
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
 
-        return ResponseEntity.ok(response);
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
     }
 }
\ No newline at end of file
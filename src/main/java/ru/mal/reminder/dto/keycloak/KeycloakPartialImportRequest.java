@@ -0,0 +1,16 @@
+package ru.mal.reminder.dto.keycloak;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeycloakPartialImportRequest {
+    private String ifResourceExists;
+    private List<KeycloakUserRepresentation> users;
+
+}
@@ -0,0 +1,27 @@
+package ru.mal.reminder.dto.keycloak;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class KeycloakPartialImportResponse {
+    private Integer added;
+    private Integer skipped;
+    private Integer overwritten;
+    private List<Result> results = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Result {
+        private String action;
+        private String resourceType;
+        private String resourceName;
+        private String id;
+    }
+}
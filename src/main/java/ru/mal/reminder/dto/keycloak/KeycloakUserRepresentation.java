@@ -3,6 +3,8 @@ package ru.mal.reminder.dto.keycloak;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class KeycloakUserRepresentation {
     private String id;
@@ -17,6 +19,10 @@ public class KeycloakUserRepresentation {
     @JsonProperty("lastName")
     private String lastName;
 
+    private List<KeycloakCredentialsRepresentation> credentials;
+
+    private List<String> realmRoles;
+
     public KeycloakUserRepresentation(String username, String email, Boolean enabled, Boolean emailVerified) {
         this.username = username;
         this.email = email;
@@ -0,0 +1,17 @@
+package ru.mal.reminder.dto.registration;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkRegistrationRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<UserRegistrationRequest> users;
+}
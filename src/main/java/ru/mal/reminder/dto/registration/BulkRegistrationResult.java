@@ -0,0 +1,10 @@
+package ru.mal.reminder.dto.registration;
+
+public record BulkRegistrationResult(
+        int index,
+        String username,
+        String keycloakId,
+        BulkRegistrationStatus status,
+        String error
+) {
+}
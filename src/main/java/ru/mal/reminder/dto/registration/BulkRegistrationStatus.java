@@ -0,0 +1,7 @@
+package ru.mal.reminder.dto.registration;
+
+public enum BulkRegistrationStatus {
+    CREATED,
+    SKIPPED,
+    FAILED
+}
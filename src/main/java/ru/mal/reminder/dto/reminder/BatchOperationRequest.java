@@ -0,0 +1,21 @@
+package ru.mal.reminder.dto.reminder;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BatchOperationRequest {
+
+    @NotNull(message = "Operation type is required")
+    private BatchOperationType type;
+
+    private Long id;
+
+    private Long version;
+
+    @Valid
+    private ReminderRequest reminder;
+}
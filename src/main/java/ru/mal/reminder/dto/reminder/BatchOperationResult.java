@@ -0,0 +1,11 @@
+package ru.mal.reminder.dto.reminder;
+
+public record BatchOperationResult(
+        int index,
+        BatchOperationType type,
+        Long id,
+        int status,
+        ReminderResponse reminder,
+        String error
+) {
+}
@@ -0,0 +1,7 @@
+package ru.mal.reminder.dto.reminder;
+
+public enum BatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,18 @@
+package ru.mal.reminder.dto.reminder;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchRequest {
+
+    @NotEmpty(message = "Operations are required")
+    @Size(max = 500, message = "No more than 500 operations per batch")
+    private List<@Valid BatchOperationRequest> operations;
+}
@@ -16,4 +16,7 @@ public class ReminderResponse {
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime remindDate;
+
+    private Long version;
+    private boolean archived;
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.mal.reminder.dto.reminder;
+
+public record ReminderSetVersion(
+        Long count,
+        Long idSum,
+        Long versionSum
+) {
+}
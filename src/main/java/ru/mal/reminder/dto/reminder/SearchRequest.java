@@ -22,6 +22,8 @@ public class SearchRequest {
     private String sortBy;
     private String sortDirection;
 
+    private boolean includeArchived;
+
     private Integer page = 0;
     private Integer size = 10;
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package ru.mal.reminder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("ru.mal.reminder.DispatchBatch")
+@Label("Reminder Dispatch Batch")
+@Category({"Reminder", "Dispatcher"})
+@Description("One chunk claimed and committed by the due-reminder dispatcher")
+@Enabled(false)
+@StackTrace(false)
+public class DispatchBatchEvent extends Event {
+
+    @Label("Rows Claimed")
+    public int rowsClaimed;
+
+    @Label("Notifications Sent")
+    public int sent;
+
+    @Label("Send Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long sendTime;
+
+    @Label("Database Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbTime;
+}
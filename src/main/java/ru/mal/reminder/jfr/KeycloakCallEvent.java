@@ -0,0 +1,27 @@
+package ru.mal.reminder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ru.mal.reminder.KeycloakCall")
+@Label("Keycloak Call")
+@Category({"Reminder", "Keycloak"})
+@Description("A Keycloak HTTP call made through the bulkhead and circuit breaker")
+@Enabled(false)
+@StackTrace(false)
+public class KeycloakCallEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Circuit State")
+    public String circuitState;
+}
@@ -0,0 +1,51 @@
+package ru.mal.reminder.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("ru.mal.reminder.ReminderSearch")
+@Label("Reminder Search")
+@Category({"Reminder", "Search"})
+@Description("A reminder search executed against the database; coalesced followers are not recorded")
+@Enabled(false)
+@StackTrace(false)
+public class ReminderSearchEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Filters")
+    @Description("Comma separated list of the specification filters that were applied")
+    public String filters;
+
+    @Label("Sort")
+    public String sort;
+
+    @Label("Page")
+    public int page;
+
+    @Label("Page Size")
+    public int size;
+
+    @Label("Rows Returned")
+    public int rowsReturned;
+
+    @Label("Total Elements")
+    public long totalElements;
+
+    @Label("Query Time")
+    @Description("Page query, without the count query")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queryTime;
+
+    @Label("Count Time")
+    @Description("Count query for the total; zero when the page itself showed the total and no count ran")
+    @Timespan(Timespan.NANOSECONDS)
+    public long countTime;
+}
@@ -0,0 +1,26 @@
+package ru.mal.reminder.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "dispatch_node")
+@Getter
+@Setter
+public class DispatchNode {
+
+    @Id
+    @Column(name = "node_id")
+    private String nodeId;
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    public DispatchNode() {}
+}
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class Reminder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reminder_id_seq")
+    @SequenceGenerator(name = "reminder_id_seq", sequenceName = "reminder_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,13 +26,17 @@ public class Reminder {
     @Column(name = "remind", nullable = false)
     private LocalDateTime remindDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     @Column(name = "notified", nullable = false)
     private Boolean notified = false;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public Reminder() {}
 
     public Reminder(String title, String description, LocalDateTime remindDate, User user) {
@@ -0,0 +1,34 @@
+package ru.mal.reminder.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "reminder_with_history")
+@Getter
+public class ReminderWithHistory {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    @Column(name = "remind")
+    private LocalDateTime remindDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    private Boolean notified;
+
+    private Long version;
+
+    private Boolean archived;
+}
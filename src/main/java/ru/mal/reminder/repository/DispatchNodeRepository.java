@@ -0,0 +1,37 @@
+package ru.mal.reminder.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mal.reminder.model.DispatchNode;
+
+import java.util.List;
+
+// Heartbeats and expiry use the database clock, so skew between nodes can't expire a live member
+@Repository
+public interface DispatchNodeRepository extends JpaRepository<DispatchNode, String> {
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "dispatch_node"))
+    @Query(value = "INSERT INTO dispatch_node (node_id, joined_at, heartbeat_at) " +
+            "VALUES (:nodeId, LOCALTIMESTAMP, LOCALTIMESTAMP) " +
+            "ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = EXCLUDED.heartbeat_at", nativeQuery = true)
+    int heartbeat(@Param("nodeId") String nodeId);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "dispatch_node"))
+    @Query(value = "DELETE FROM dispatch_node " +
+            "WHERE heartbeat_at < LOCALTIMESTAMP - make_interval(secs => :timeoutSeconds)", nativeQuery = true)
+    int deleteExpired(@Param("timeoutSeconds") long timeoutSeconds);
+
+    @Query("SELECT n.nodeId FROM DispatchNode n ORDER BY n.nodeId")
+    List<String> findAllNodeIds();
+}
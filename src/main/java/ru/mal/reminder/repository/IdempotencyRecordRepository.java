@@ -0,0 +1,44 @@
+package ru.mal.reminder.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mal.reminder.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_key"))
+    @Query(value = "INSERT INTO idempotency_key AS k (keycloak_id, idempotency_key, response, created_at, expires_at) " +
+            "VALUES (:keycloakId, :idempotencyKey, :response, :createdAt, :expiresAt) " +
+            "ON CONFLICT (keycloak_id, idempotency_key) DO UPDATE SET response = EXCLUDED.response, " +
+            "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE k.expires_at < EXCLUDED.created_at", nativeQuery = true)
+    int insertIfAbsent(@Param("keycloakId") String keycloakId,
+                       @Param("idempotencyKey") String idempotencyKey,
+                       @Param("response") String response,
+                       @Param("createdAt") LocalDateTime createdAt,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query("SELECT r.response FROM IdempotencyRecord r " +
+            "WHERE r.keycloakId = :keycloakId AND r.idempotencyKey = :idempotencyKey AND r.expiresAt > :now")
+    Optional<String> findResponse(@Param("keycloakId") String keycloakId,
+                                  @Param("idempotencyKey") String idempotencyKey,
+                                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
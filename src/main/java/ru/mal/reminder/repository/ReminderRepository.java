@@ -1,13 +1,21 @@
 package ru.mal.reminder.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mal.reminder.dto.reminder.ReminderSetVersion;
 import ru.mal.reminder.model.Reminder;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +24,149 @@ public interface ReminderRepository extends JpaRepository<Reminder, Long>, JpaSp
 
     Optional<Reminder> findByIdAndUserId(Long id, Long userId);
 
-    @Query("SELECT r FROM Reminder r WHERE r.remindDate < :now AND r.notified = false")
-    List<Reminder> findByRemindDateBeforeAndNotifiedFalse(@Param("now") LocalDateTime now);
+    List<Reminder> findAllByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Transactional
+    @Query(value = "UPDATE reminder SET title = :title, description = CAST(:description AS VARCHAR), " +
+            "remind = :remindDate, version = version + 1 " +
+            "WHERE id = :id AND user_id = (SELECT u.id FROM app_user u WHERE u.keycloak_id = :keycloakId) " +
+            "RETURNING *", nativeQuery = true)
+    Optional<Reminder> updateByIdAndKeycloakId(@Param("id") Long id,
+                                               @Param("keycloakId") String keycloakId,
+                                               @Param("title") String title,
+                                               @Param("description") String description,
+                                               @Param("remindDate") LocalDateTime remindDate);
+
+    @Transactional
+    @Query(value = "UPDATE reminder SET title = :title, description = CAST(:description AS VARCHAR), " +
+            "remind = :remindDate, version = version + 1 " +
+            "WHERE id = :id AND version = :version " +
+            "AND user_id = (SELECT u.id FROM app_user u WHERE u.keycloak_id = :keycloakId) " +
+            "RETURNING *", nativeQuery = true)
+    Optional<Reminder> updateByIdAndKeycloakIdAndVersion(@Param("id") Long id,
+                                                         @Param("keycloakId") String keycloakId,
+                                                         @Param("version") Long version,
+                                                         @Param("title") String title,
+                                                         @Param("description") String description,
+                                                         @Param("remindDate") LocalDateTime remindDate);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Reminder r WHERE r.id = :id " +
+            "AND r.user.id = (SELECT u.id FROM User u WHERE u.keycloakId = :keycloakId)")
+    int deleteByIdAndKeycloakId(@Param("id") Long id, @Param("keycloakId") String keycloakId);
+
+    // Ranking per user interleaves users oldest-first. Each user's rows come from a LATERAL probe of
+    // idx_reminder_due_user that stops after perUser rows, so a chunk ranks at most perUser rows per
+    // user with due reminders instead of the whole backlog. Locking OF r below the LIMIT makes
+    // SKIP LOCKED pass over rows other nodes are claiming right now. The claim is committed as
+    // claimed_until, so sending needs no row locks; rows whose claim expired are claimed again.
+    // Repeating the remind bound on r lets Postgres prune future partitions there as well.
+    @Query(value = "UPDATE reminder SET claimed_until = :claimedUntil WHERE (id, remind) IN (" +
+            "SELECT r.id, r.remind FROM reminder r JOIN (" +
+            "SELECT due.id, due.remind, due.user_rank FROM (" +
+            "SELECT DISTINCT user_id FROM reminder WHERE notified = false AND remind < :now" +
+            ") u CROSS JOIN LATERAL (" +
+            "SELECT id, remind, ROW_NUMBER() OVER (ORDER BY remind, id) AS user_rank FROM reminder " +
+            "WHERE user_id = u.user_id AND notified = false AND remind < :now " +
+            "AND (claimed_until IS NULL OR claimed_until < :now) " +
+            "ORDER BY remind, id LIMIT :perUser" +
+            ") due" +
+            ") k ON r.id = k.id AND r.remind = k.remind " +
+            "WHERE r.notified = false AND r.remind < :now AND (r.claimed_until IS NULL OR r.claimed_until < :now) " +
+            "ORDER BY k.user_rank, r.remind, r.id LIMIT :limit FOR UPDATE OF r SKIP LOCKED" +
+            ") RETURNING id", nativeQuery = true)
+    List<Long> claimDueReminderIds(@Param("now") LocalDateTime now,
+                                   @Param("claimedUntil") LocalDateTime claimedUntil,
+                                   @Param("perUser") int perUser,
+                                   @Param("limit") int limit);
+
+    // Same claim restricted to the users hashed into this node's buckets
+    @Query(value = "UPDATE reminder SET claimed_until = :claimedUntil WHERE (id, remind) IN (" +
+            "SELECT r.id, r.remind FROM reminder r JOIN (" +
+            "SELECT due.id, due.remind, due.user_rank FROM (" +
+            "SELECT DISTINCT user_id FROM reminder WHERE notified = false AND remind < :now " +
+            "AND (hashint8(user_id) & 2147483647) % :bucketCount IN (:buckets)" +
+            ") u CROSS JOIN LATERAL (" +
+            "SELECT id, remind, ROW_NUMBER() OVER (ORDER BY remind, id) AS user_rank FROM reminder " +
+            "WHERE user_id = u.user_id AND notified = false AND remind < :now " +
+            "AND (claimed_until IS NULL OR claimed_until < :now) " +
+            "ORDER BY remind, id LIMIT :perUser" +
+            ") due" +
+            ") k ON r.id = k.id AND r.remind = k.remind " +
+            "WHERE r.notified = false AND r.remind < :now AND (r.claimed_until IS NULL OR r.claimed_until < :now) " +
+            "ORDER BY k.user_rank, r.remind, r.id LIMIT :limit FOR UPDATE OF r SKIP LOCKED" +
+            ") RETURNING id", nativeQuery = true)
+    List<Long> claimDueReminderIdsInBuckets(@Param("now") LocalDateTime now,
+                                            @Param("claimedUntil") LocalDateTime claimedUntil,
+                                            @Param("perUser") int perUser,
+                                            @Param("limit") int limit,
+                                            @Param("bucketCount") int bucketCount,
+                                            @Param("buckets") Collection<Integer> buckets);
+
+    @Query("SELECT r FROM Reminder r JOIN FETCH r.user " +
+            "WHERE r.id IN :ids AND r.remindDate < :now ORDER BY r.remindDate, r.id")
+    List<Reminder> findAllWithUserByIdInAndRemindDateBefore(@Param("ids") Collection<Long> ids,
+                                                            @Param("now") LocalDateTime now);
+
+    // Settles the user's stale backlog beyond the current chunk, but only rows nobody else holds:
+    // rows claimed with this chunk's claimedUntil are ours, rows under another live claim or locked
+    // by a claim in progress are skipped, never waited on
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reminder"))
+    @Query(value = "UPDATE reminder SET notified = true, version = version + 1 WHERE (id, remind) IN (" +
+            "SELECT id, remind FROM reminder WHERE user_id = :userId AND notified = false AND remind < :staleBefore " +
+            "AND (claimed_until IS NULL OR claimed_until < :now OR claimed_until = :claimedUntil) " +
+            "FOR UPDATE SKIP LOCKED" +
+            ") AND notified = false AND remind < :staleBefore", nativeQuery = true)
+    int markStaleNotified(@Param("userId") Long userId,
+                          @Param("staleBefore") LocalDateTime staleBefore,
+                          @Param("now") LocalDateTime now,
+                          @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    // Matching the claimed version leaves a reminder that was edited while its notification was in
+    // flight unsent, so it is dispatched again on its new schedule
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reminder"))
+    @Query(value = "UPDATE reminder SET notified = true, claimed_until = NULL, version = version + 1 " +
+            "WHERE id = :id AND remind = :remind AND version = :version AND notified = false", nativeQuery = true)
+    int markNotified(@Param("id") Long id, @Param("remind") LocalDateTime remind, @Param("version") Long version);
+
+    // Without a declared query space this native write would evict every second-level cache region
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reminder"))
+    @Query(value = "WITH archived AS (" +
+            "DELETE FROM reminder WHERE (id, remind) IN (" +
+            "SELECT id, remind FROM reminder WHERE notified = true AND remind < :before " +
+            "ORDER BY remind LIMIT :limit FOR UPDATE SKIP LOCKED" +
+            ") RETURNING id, title, description, remind, user_id, version" +
+            ") INSERT INTO reminder_history (id, title, description, remind, user_id, version, archived_at) " +
+            "SELECT id, title, description, remind, user_id, version, :archivedAt FROM archived", nativeQuery = true)
+    int archiveNotifiedBefore(@Param("before") LocalDateTime before,
+                              @Param("limit") int limit,
+                              @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Read-write so it runs on the primary, pg_stat_replication is empty on a replica.
+    // Without pg_monitor (or pg_read_all_stats) the walsender rows come back with replay_lag hidden,
+    // which would read as zero lag, so NULL is returned instead to say the lag can't be observed.
+    @Transactional
+    @Query(value = """
+            SELECT CASE WHEN pg_has_role('pg_read_all_stats', 'MEMBER')
+                        THEN COALESCE(MAX(EXTRACT(EPOCH FROM replay_lag)) * 1000, 0) END
+            FROM pg_stat_replication""",
+            nativeQuery = true)
+    Double findMaxReplicationLagMillis();
+
+    @Transactional
+    @Query(value = "SELECT reminder_create_partitions(:fromMonth, :toMonth)", nativeQuery = true)
+    int createPartitions(@Param("fromMonth") LocalDate fromMonth, @Param("toMonth") LocalDate toMonth);
+
+    @Transactional
+    @Query(value = "SELECT reminder_drop_partitions(:beforeMonth)", nativeQuery = true)
+    int dropPartitionsBefore(@Param("beforeMonth") LocalDate beforeMonth);
+
+    @Query("SELECT new ru.mal.reminder.dto.reminder.ReminderSetVersion(COUNT(r), COALESCE(SUM(r.id), 0L), COALESCE(SUM(r.version), 0L)) " +
+            "FROM Reminder r WHERE r.user.id = :userId")
+    ReminderSetVersion findSetVersionByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package ru.mal.reminder.repository;
+
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.Repository;
+import ru.mal.reminder.model.ReminderWithHistory;
+
+// Read-only view over active and archived reminders, so no save or delete is exposed
+public interface ReminderWithHistoryRepository extends Repository<ReminderWithHistory, Long>,
+        JpaSpecificationExecutor<ReminderWithHistory> {
+}
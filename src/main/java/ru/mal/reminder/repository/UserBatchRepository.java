@@ -0,0 +1,10 @@
+package ru.mal.reminder.repository;
+
+import ru.mal.reminder.model.User;
+
+import java.util.List;
+
+public interface UserBatchRepository {
+
+    int insertIgnoringExisting(List<User> users);
+}
@@ -0,0 +1,34 @@
+package ru.mal.reminder.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.mal.reminder.model.User;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class UserBatchRepositoryImpl implements UserBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO app_user (keycloak_id, email, username) VALUES (?, ?, ?) " +
+            "ON CONFLICT (keycloak_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${reminder.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Override
+    public int insertIgnoringExisting(List<User> users) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, users, batchSize, (ps, user) -> {
+            ps.setString(1, user.getKeycloakId());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getUsername());
+        });
+        return Arrays.stream(counts)
+                .flatMapToInt(Arrays::stream)
+                .map(count -> Math.max(count, 0))
+                .sum();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.mal.reminder.repository;
+
+import ru.mal.reminder.model.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByKeycloakId(String keycloakId);
+}
@@ -0,0 +1,23 @@
+package ru.mal.reminder.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import ru.mal.reminder.model.User;
+
+import java.util.Optional;
+
+// A derived query would always go to the database, the natural-id API resolves the id
+// from the natural-id cache and then the entity from the second-level cache
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByKeycloakId(String keycloakId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(keycloakId);
+    }
+}
@@ -4,10 +4,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.mal.reminder.model.User;
 
-import java.util.Optional;
-
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-
-    Optional<User> findByKeycloakId(String keycloakId);
+public interface UserRepository extends JpaRepository<User, Long>, UserBatchRepository, UserNaturalIdRepository {
 }
\ No newline at end of file
@@ -2,38 +2,39 @@ package ru.mal.reminder.repository.specification;
 
 import org.springframework.data.jpa.domain.Specification;
 import ru.mal.reminder.dto.reminder.SearchRequest;
-import ru.mal.reminder.model.Reminder;
 
 import java.time.LocalDateTime;
+import java.util.StringJoiner;
 
+// Generic so the same filters apply to active reminders and to the reminder_with_history view
 public class ReminderSpecification {
 
-    public static Specification<Reminder> withUserId(Long userId) {
+    public static <T> Specification<T> withUserId(Long userId) {
         return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
     }
 
-    public static Specification<Reminder> withTitleLike(String title) {
+    public static <T> Specification<T> withTitleLike(String title) {
         return (root, query, cb) ->
                 cb.like(cb.lower(root.get("title")), "%" + title.toLowerCase() + "%");
     }
 
-    public static Specification<Reminder> withDescriptionLike(String description) {
+    public static <T> Specification<T> withDescriptionLike(String description) {
         return (root, query, cb) ->
                 cb.like(cb.lower(root.get("description")), "%" + description.toLowerCase() + "%");
     }
 
-    public static Specification<Reminder> withDateFrom(LocalDateTime dateFrom) {
+    public static <T> Specification<T> withDateFrom(LocalDateTime dateFrom) {
         return (root, query, cb) ->
                 cb.greaterThanOrEqualTo(root.get("remindDate"), dateFrom);
     }
 
-    public static Specification<Reminder> withDateTo(LocalDateTime dateTo) {
+    public static <T> Specification<T> withDateTo(LocalDateTime dateTo) {
         return (root, query, cb) ->
                 cb.lessThanOrEqualTo(root.get("remindDate"), dateTo);
     }
 
-    public static Specification<Reminder> buildSearchSpecification(SearchRequest searchRequest, Long userId) {
-        Specification<Reminder> spec = withUserId(userId);
+    public static <T> Specification<T> buildSearchSpecification(SearchRequest searchRequest, Long userId) {
+        Specification<T> spec = withUserId(userId);
 
         if (searchRequest.getTitle() != null && !searchRequest.getTitle().isEmpty()) {
             spec = spec.and(withTitleLike(searchRequest.getTitle()));
@@ -53,4 +54,31 @@ public class ReminderSpecification {
 
         return spec;
     }
+
+    public static String describeFilters(SearchRequest searchRequest) {
+        StringJoiner filters = new StringJoiner(",");
+        filters.add("userId");
+
+        if (searchRequest.getTitle() != null && !searchRequest.getTitle().isEmpty()) {
+            filters.add("title");
+        }
+
+        if (searchRequest.getDescription() != null && !searchRequest.getDescription().isEmpty()) {
+            filters.add("description");
+        }
+
+        if (searchRequest.getDateFrom() != null) {
+            filters.add("dateFrom");
+        }
+
+        if (searchRequest.getDateTo() != null) {
+            filters.add("dateTo");
+        }
+
+        if (searchRequest.isIncludeArchived()) {
+            filters.add("includeArchived");
+        }
+
+        return filters.toString();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.mal.reminder.scheduling;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method on at most one node at a time. Nodes that find the lock taken skip the
+ * invocation instead of waiting, so it is meant for void {@code @Scheduled} jobs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ClusterLock {
+
+    String value();
+}
@@ -0,0 +1,64 @@
+package ru.mal.reminder.scheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Slf4j
+@Aspect
+@Component
+public class ClusterLockAspect {
+
+    // Two-key advisory locks live in their own key space, apart from the single-key locks taken by migrations
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('reminder_cluster_lock'), hashtext(?))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('reminder_cluster_lock'), hashtext(?))";
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    public ClusterLockAspect(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // The lock belongs to the database session, so it is held on a connection of its own for the whole job.
+    // A node that dies drops that session and Postgres releases the lock without any lease to expire.
+    @Around("@annotation(clusterLock)")
+    public Object runExclusively(ProceedingJoinPoint joinPoint, ClusterLock clusterLock) throws Throwable {
+        String name = clusterLock.value();
+        try (Connection connection = dataSource.getConnection()) {
+            if (!execute(connection, TRY_LOCK_SQL, name)) {
+                log.debug("Cluster lock {} is held by another node, skipping {}", name, joinPoint.getSignature().toShortString());
+                meterRegistry.counter("reminder.cluster.lock", "name", name, "outcome", "skipped").increment();
+                return null;
+            }
+
+            meterRegistry.counter("reminder.cluster.lock", "name", name, "outcome", "acquired").increment();
+            try {
+                return joinPoint.proceed();
+            } finally {
+                if (!execute(connection, UNLOCK_SQL, name)) {
+                    log.warn("Cluster lock {} was not held at release", name);
+                }
+            }
+        }
+    }
+
+    private boolean execute(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
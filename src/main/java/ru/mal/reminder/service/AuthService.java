@@ -1,30 +1,55 @@
 package ru.mal.reminder.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.mal.reminder.client.KeycloakAdminTokenManager;
 import ru.mal.reminder.client.KeycloakClient;
+import ru.mal.reminder.client.KeycloakUnavailableException;
 import ru.mal.reminder.dto.TokenResponse;
 import ru.mal.reminder.dto.UserLoginRequest;
 import ru.mal.reminder.dto.keycloak.KeycloakCredentialsRepresentation;
 import ru.mal.reminder.dto.keycloak.KeycloakUserRepresentation;
 import ru.mal.reminder.dto.registration.UserRegistrationRequest;
 
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static ru.mal.reminder.Consts.*;
 
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
     private final KeycloakClient keycloakClient;
+    private final KeycloakAdminTokenManager adminTokenManager;
     private final MessageSource messageSource;
     private final UserService userService;
+    private final Executor registrationExecutor;
+
+    public AuthService(KeycloakClient keycloakClient,
+                       KeycloakAdminTokenManager adminTokenManager,
+                       MessageSource messageSource,
+                       UserService userService,
+                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor registrationExecutor) {
+        this.keycloakClient = keycloakClient;
+        this.adminTokenManager = adminTokenManager;
+        this.messageSource = messageSource;
+        this.userService = userService;
+        this.registrationExecutor = registrationExecutor;
+    }
 
     public String registerUser(UserRegistrationRequest request) {
+        CompletableFuture<Object> userRole = null;
         try {
-            TokenResponse adminToken = keycloakClient.adminLogin();
+            String adminToken = adminTokenManager.getAccessToken();
+
+            userRole = CompletableFuture.supplyAsync(
+                    () -> keycloakClient.getRealmRole(USER_ROLE, adminToken), registrationExecutor);
 
             KeycloakUserRepresentation user = new KeycloakUserRepresentation(
                     request.getUsername(),
@@ -32,26 +57,39 @@ public class AuthService {
                     true,
                     false
             );
-
-            String userId = keycloakClient.registerUser(adminToken.getAccessToken(), user);
-
-            KeycloakCredentialsRepresentation credentials = new KeycloakCredentialsRepresentation(
+            user.setCredentials(List.of(new KeycloakCredentialsRepresentation(
                     GRANT_TYPE_PASSWORD,
                     request.getPassword(),
                     false
-            );
-            keycloakClient.resetUserPassword(userId, credentials, adminToken.getAccessToken());
+            )));
 
-            keycloakClient.assignUserRole(userId, USER_ROLE, adminToken.getAccessToken());
+            String userId = keycloakClient.registerUser(adminToken, user);
+
+            CompletableFuture<Void> roleMapping = userRole.thenAcceptAsync(role -> {
+                if (role != null) {
+                    keycloakClient.assignUserRoles(userId, List.of(role), adminToken);
+                }
+            }, registrationExecutor);
 
             userService.findOrCreateUser(userId, request.getEmail(), request.getUsername());
+            roleMapping.join();
 
             return messageSource.getMessage("auth.register.success", null, Locale.getDefault());
 
         } catch (Exception e) {
+            if (userRole != null) {
+                userRole.cancel(true);
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof KeycloakUnavailableException unavailable) {
+                throw unavailable;
+            }
+            if (cause instanceof HttpClientErrorException.Unauthorized) {
+                adminTokenManager.invalidate();
+            }
             throw new RuntimeException(
                     messageSource.getMessage("auth.register.error", null, Locale.getDefault()),
-                    e
+                    cause
             );
         }
     }
@@ -62,6 +100,8 @@ public class AuthService {
                     request.getUsername(),
                     request.getPassword()
             );
+        } catch (KeycloakUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException(
                     messageSource.getMessage("auth.login.error", null, Locale.getDefault()),
@@ -69,4 +109,4 @@ public class AuthService {
             );
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package ru.mal.reminder.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.mal.reminder.client.KeycloakAdminTokenManager;
+import ru.mal.reminder.client.KeycloakClient;
+import ru.mal.reminder.dto.keycloak.KeycloakCredentialsRepresentation;
+import ru.mal.reminder.dto.keycloak.KeycloakPartialImportRequest;
+import ru.mal.reminder.dto.keycloak.KeycloakPartialImportResponse;
+import ru.mal.reminder.dto.keycloak.KeycloakUserRepresentation;
+import ru.mal.reminder.dto.registration.BulkRegistrationResult;
+import ru.mal.reminder.dto.registration.BulkRegistrationStatus;
+import ru.mal.reminder.dto.registration.UserRegistrationRequest;
+import ru.mal.reminder.model.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static ru.mal.reminder.Consts.*;
+
+@Slf4j
+@Service
+public class BulkRegistrationService {
+
+    private static final String IF_RESOURCE_EXISTS_SKIP = "SKIP";
+    private static final String ACTION_ADDED = "ADDED";
+    private static final String ACTION_SKIPPED = "SKIPPED";
+    private static final String RESOURCE_TYPE_USER = "USER";
+
+    private final KeycloakClient keycloakClient;
+    private final KeycloakAdminTokenManager adminTokenManager;
+    private final UserService userService;
+    private final MessageSource messageSource;
+    private final int chunkSize;
+
+    public BulkRegistrationService(KeycloakClient keycloakClient,
+                                   KeycloakAdminTokenManager adminTokenManager,
+                                   UserService userService,
+                                   MessageSource messageSource,
+                                   @Value("${keycloak.bulk-import.chunk-size:200}") int chunkSize) {
+        this.keycloakClient = keycloakClient;
+        this.adminTokenManager = adminTokenManager;
+        this.userService = userService;
+        this.messageSource = messageSource;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<BulkRegistrationResult> registerUsers(List<UserRegistrationRequest> requests) {
+        BulkRegistrationResult[] results = new BulkRegistrationResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            UserRegistrationRequest request = requests.get(i);
+            if (!isValid(request) || !usernames.add(normalize(request.getUsername()))) {
+                results[i] = failed(i, request, "auth.register.bulk.invalid");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + chunkSize, accepted.size()));
+            importChunk(requests, chunk, results);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private void importChunk(List<UserRegistrationRequest> requests, List<Integer> chunk, BulkRegistrationResult[] results) {
+        try {
+            List<KeycloakUserRepresentation> users = chunk.stream()
+                    .map(index -> toRepresentation(requests.get(index)))
+                    .toList();
+
+            KeycloakPartialImportResponse response = keycloakClient.partialImport(
+                    adminTokenManager.getAccessToken(),
+                    new KeycloakPartialImportRequest(IF_RESOURCE_EXISTS_SKIP, users)
+            );
+
+            Map<String, KeycloakPartialImportResponse.Result> importResults = new HashMap<>();
+            for (KeycloakPartialImportResponse.Result result : response.getResults()) {
+                if (RESOURCE_TYPE_USER.equals(result.getResourceType())) {
+                    importResults.put(normalize(result.getResourceName()), result);
+                }
+            }
+
+            List<User> appUsers = new ArrayList<>();
+            for (Integer index : chunk) {
+                UserRegistrationRequest request = requests.get(index);
+                KeycloakPartialImportResponse.Result result = importResults.get(normalize(request.getUsername()));
+
+                if (result == null || result.getId() == null) {
+                    results[index] = failed(index, request, "auth.register.error");
+                } else if (ACTION_ADDED.equals(result.getAction()) || ACTION_SKIPPED.equals(result.getAction())) {
+                    BulkRegistrationStatus status = ACTION_ADDED.equals(result.getAction())
+                            ? BulkRegistrationStatus.CREATED
+                            : BulkRegistrationStatus.SKIPPED;
+                    results[index] = new BulkRegistrationResult(index, request.getUsername(), result.getId(), status, null);
+                    appUsers.add(new User(result.getId(), request.getEmail(), request.getUsername()));
+                } else {
+                    results[index] = failed(index, request, "auth.register.error");
+                }
+            }
+
+            userService.createUsers(appUsers);
+
+        } catch (Exception e) {
+            if (e instanceof HttpClientErrorException.Unauthorized) {
+                adminTokenManager.invalidate();
+            }
+            log.warn("Bulk import of {} users failed: {}", chunk.size(), e.getMessage());
+            for (Integer index : chunk) {
+                results[index] = failed(index, requests.get(index), "auth.register.error");
+            }
+        }
+    }
+
+    private KeycloakUserRepresentation toRepresentation(UserRegistrationRequest request) {
+        KeycloakUserRepresentation user = new KeycloakUserRepresentation(
+                request.getUsername(),
+                request.getEmail(),
+                true,
+                false
+        );
+        user.setCredentials(List.of(new KeycloakCredentialsRepresentation(
+                GRANT_TYPE_PASSWORD,
+                request.getPassword(),
+                false
+        )));
+        user.setRealmRoles(List.of(USER_ROLE));
+        return user;
+    }
+
+    private boolean isValid(UserRegistrationRequest request) {
+        return request != null
+                && StringUtils.hasText(request.getUsername())
+                && StringUtils.hasText(request.getEmail())
+                && StringUtils.hasText(request.getPassword());
+    }
+
+    private String normalize(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    private BulkRegistrationResult failed(int index, UserRegistrationRequest request, String messageKey) {
+        return new BulkRegistrationResult(
+                index,
+                request != null ? request.getUsername() : null,
+                null,
+                BulkRegistrationStatus.FAILED,
+                messageSource.getMessage(messageKey, null, Locale.getDefault())
+        );
+    }
+}
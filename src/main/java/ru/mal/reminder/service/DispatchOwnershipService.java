@@ -0,0 +1,119 @@
+package ru.mal.reminder.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.mal.reminder.config.DispatchOwnershipProperties;
+import ru.mal.reminder.repository.DispatchNodeRepository;
+import ru.mal.reminder.util.ConsistentHashRing;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "reminder.dispatcher.ownership", name = "enabled", havingValue = "true")
+public class DispatchOwnershipService {
+
+    private final DispatchNodeRepository dispatchNodeRepository;
+    private final DispatchOwnershipProperties properties;
+    private final String nodeId;
+    private final MeterRegistry meterRegistry;
+    private final Counter rebalanceCounter;
+    private final ReentrantLock joinLock = new ReentrantLock();
+
+    private volatile boolean joined;
+    private volatile List<String> members = List.of();
+    private volatile List<Integer> ownedBuckets = List.of();
+
+    public DispatchOwnershipService(DispatchNodeRepository dispatchNodeRepository,
+                                    DispatchOwnershipProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.dispatchNodeRepository = dispatchNodeRepository;
+        this.properties = properties;
+        this.nodeId = properties.nodeId() == null || properties.nodeId().isBlank()
+                ? UUID.randomUUID().toString()
+                : properties.nodeId();
+        this.meterRegistry = meterRegistry;
+        this.rebalanceCounter = Counter.builder("reminder.dispatch.rebalance")
+                .description("Changes of dispatch bucket ownership on this node")
+                .register(meterRegistry);
+    }
+
+    // Schedulers start on context refresh, before ApplicationReadyEvent, so the dispatcher also calls
+    // this on every tick: whichever comes first runs the initial heartbeat and a fresh node owns its
+    // buckets before its first claim instead of idling for a heartbeat interval. A lock rather than
+    // synchronized so the heartbeat's JDBC calls don't pin a virtual carrier.
+    @EventListener(ApplicationReadyEvent.class)
+    public void join() {
+        if (joined) {
+            return;
+        }
+        joinLock.lock();
+        try {
+            if (!joined) {
+                heartbeat();
+                Gauge.builder("reminder.dispatch.buckets.owned", this, service -> service.ownedBuckets.size())
+                        .description("Dispatch buckets owned by this node")
+                        .register(meterRegistry);
+                joined = true;
+            }
+        } finally {
+            joinLock.unlock();
+        }
+    }
+
+    // Every node derives the same ring from the same member list, so ownership needs no coordination
+    // beyond the heartbeat table. A node that stops heartbeating keeps its buckets unserved until
+    // node-timeout passes; the claim query still locks rows, so a brief overlap never double-sends.
+    @Scheduled(fixedDelayString = "${reminder.dispatcher.ownership.heartbeat-interval:10000}")
+    public void heartbeat() {
+        dispatchNodeRepository.heartbeat(nodeId);
+        dispatchNodeRepository.deleteExpired(properties.nodeTimeout().toSeconds());
+
+        List<String> live = dispatchNodeRepository.findAllNodeIds();
+        if (!live.equals(members)) {
+            rebalance(live);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        dispatchNodeRepository.deleteById(nodeId);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public int bucketCount() {
+        return properties.buckets();
+    }
+
+    public List<Integer> ownedBuckets() {
+        return ownedBuckets;
+    }
+
+    private void rebalance(List<String> live) {
+        ConsistentHashRing ring = new ConsistentHashRing(live, properties.virtualNodes());
+        List<Integer> owned = IntStream.range(0, properties.buckets())
+                .filter(bucket -> nodeId.equals(ring.ownerOf("bucket-" + bucket)))
+                .boxed()
+                .toList();
+
+        members = live;
+        ownedBuckets = owned;
+        rebalanceCounter.increment();
+        log.info("Dispatch membership changed to {} nodes, node {} owns {} of {} buckets",
+                live.size(), nodeId, owned.size(), properties.buckets());
+    }
+}
@@ -0,0 +1,122 @@
+package ru.mal.reminder.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mal.reminder.repository.IdempotencyRecordRepository;
+import ru.mal.reminder.scheduling.ClusterLock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final MessageSource messageSource;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Cache<String, String> responses;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              MessageSource messageSource,
+                              Clock clock,
+                              @Value("${reminder.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${reminder.idempotency.cache-size:10000}") long cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.messageSource = messageSource;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    // The action must call remember() inside its transaction: a retry then fails that insert,
+    // rolls back its own writes and gets the stored response replayed instead
+    public <T> T execute(String keycloakId, String idempotencyKey, Class<T> type, Supplier<T> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException(
+                    messageSource.getMessage("idempotency.key.invalid", null, Locale.getDefault())
+            );
+        }
+
+        String cacheKey = cacheKey(keycloakId, idempotencyKey);
+        String cached = responses.getIfPresent(cacheKey);
+        if (cached != null) {
+            return read(cached, type);
+        }
+
+        try {
+            T result = action.get();
+            responses.put(cacheKey, write(result));
+            return result;
+        } catch (DuplicateKeyException e) {
+            String stored = idempotencyRecordRepository
+                    .findResponse(keycloakId, idempotencyKey, LocalDateTime.now(clock))
+                    .orElseThrow(() -> e);
+            log.debug("Replaying stored response for idempotency key {}", idempotencyKey);
+            responses.put(cacheKey, stored);
+            return read(stored, type);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remember(String keycloakId, String idempotencyKey, Object response) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int inserted = idempotencyRecordRepository.insertIfAbsent(
+                keycloakId, idempotencyKey, write(response), now, now.plus(ttl));
+
+        if (inserted == 0) {
+            throw new DuplicateKeyException("Idempotency key already used: " + idempotencyKey);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reminder.idempotency.purge-interval:3600000}")
+    @ClusterLock("idempotency-purge")
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now(clock));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private String cacheKey(String keycloakId, String idempotencyKey) {
+        return keycloakId + ':' + idempotencyKey;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
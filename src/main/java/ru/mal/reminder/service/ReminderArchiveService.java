@@ -0,0 +1,84 @@
+package ru.mal.reminder.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.mal.reminder.config.ArchiveProperties;
+import ru.mal.reminder.repository.ReminderRepository;
+import ru.mal.reminder.scheduling.ClusterLock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class ReminderArchiveService {
+
+    private final ReminderRepository reminderRepository;
+    private final Clock clock;
+    private final ArchiveProperties properties;
+    private final AtomicBoolean lagUnobservableReported = new AtomicBoolean();
+
+    public ReminderArchiveService(ReminderRepository reminderRepository, Clock clock, ArchiveProperties properties) {
+        this.reminderRepository = reminderRepository;
+        this.clock = clock;
+        this.properties = properties;
+    }
+
+    // Every batch is its own short transaction. Pausing between batches and checking replay lag
+    // keeps the deletes from flooding the replicas, whatever is left waits for the next run.
+    // The lag check needs the application role to be granted pg_monitor, otherwise only the pause applies.
+    @Scheduled(fixedDelayString = "${reminder.archive.interval:600000}")
+    @ClusterLock("reminder-archive")
+    public void archiveNotified() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime before = now.minus(properties.retention());
+        long total = 0;
+
+        for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+            int archived = reminderRepository.archiveNotifiedBefore(before, properties.batchSize(), now);
+            total += archived;
+            if (archived < properties.batchSize() || !throttle()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Archived {} notified reminders due before {}", total, before);
+        }
+    }
+
+    private boolean throttle() {
+        if (!pause(properties.pause())) {
+            return false;
+        }
+        Double lagMillis = reminderRepository.findMaxReplicationLagMillis();
+        if (lagMillis == null) {
+            if (lagUnobservableReported.compareAndSet(false, true)) {
+                log.warn("Replica replay lag is not visible to the database role, grant it pg_monitor; "
+                        + "reminder archival is throttled by the pause only");
+            }
+            return true;
+        }
+        if (lagMillis > properties.maxReplicaLag().toMillis()) {
+            log.warn("Replica replay lag is {} ms, postponing the rest of the reminder archival", lagMillis.longValue());
+            return false;
+        }
+        return true;
+    }
+
+    private boolean pause(Duration duration) {
+        if (duration.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(duration);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
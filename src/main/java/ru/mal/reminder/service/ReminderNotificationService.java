@@ -1,38 +1,223 @@
 package ru.mal.reminder.service;
 
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.mal.reminder.config.DispatcherProperties;
+import ru.mal.reminder.config.DispatcherProperties.StalePolicy;
+import ru.mal.reminder.jfr.DispatchBatchEvent;
 import ru.mal.reminder.model.Reminder;
 import ru.mal.reminder.repository.ReminderRepository;
 import org.springframework.context.MessageSource;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ReminderNotificationService {
 
     private final ReminderRepository reminderRepository;
     private final TelegramService telegramService;
     private final MessageSource messageSource;
+    private final Clock clock;
+    private final TransactionOperations transactionOperations;
+    private final DispatcherProperties properties;
+    private final DispatchOwnershipService ownership;
 
+    private final Timer dispatchTimer;
+    private final DistributionSummary batchSize;
+    private final Timer dispatchLag;
+    private final Counter staleCounter;
+
+    public ReminderNotificationService(ReminderRepository reminderRepository,
+                                       TelegramService telegramService,
+                                       MessageSource messageSource,
+                                       MeterRegistry meterRegistry,
+                                       Clock clock,
+                                       TransactionOperations transactionOperations,
+                                       DispatcherProperties properties,
+                                       Optional<DispatchOwnershipService> ownership) {
+        this.reminderRepository = reminderRepository;
+        this.telegramService = telegramService;
+        this.messageSource = messageSource;
+        this.clock = clock;
+        this.transactionOperations = transactionOperations;
+        this.properties = properties;
+        this.ownership = ownership.orElse(null);
+        this.dispatchTimer = Timer.builder("reminder.dispatch.duration")
+                .description("Time spent in one dispatcher run")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("reminder.dispatch.batch.size")
+                .description("Due reminders claimed per dispatcher chunk")
+                .register(meterRegistry);
+        this.dispatchLag = Timer.builder("reminder.dispatch.lag")
+                .description("Delay between remind date and the notification being sent")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.staleCounter = Counter.builder("reminder.dispatch.stale")
+                .description("Stale reminders settled without an individual notification")
+                .tag("policy", properties.stalePolicy().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    // Each chunk is claimed, sent and settled on its own, so a backlog after downtime is drained
+    // with bounded memory and short transactions. The run ends once nothing is left to claim.
+    // Deliberately not a @ClusterLock job: claims skip rows other nodes hold, so every node drains
+    // disjoint chunks of the same backlog at once and catch-up throughput grows with the node count.
     @Scheduled(fixedRateString = "${scheduler.check-interval:60000}")
-    @Transactional
     public void checkDueReminders() {
-        List<Reminder> dueReminders = reminderRepository
-                .findByRemindDateBeforeAndNotifiedFalse(LocalDateTime.now());
+        if (ownership != null) {
+            ownership.join();
+        }
+        dispatchTimer.record(() -> {
+            int chunks = 0;
+            long total = 0;
+            int claimed;
+            while ((claimed = dispatchChunk()) > 0) {
+                total += claimed;
+                chunks++;
+            }
+            if (chunks > 1) {
+                log.info("Drained reminder backlog: {} reminders in {} chunks", total, chunks);
+            }
+        });
+    }
 
-        for (Reminder reminder : dueReminders) {
+    // The claim commits before anything is sent, so a slow Telegram holds neither row locks nor a
+    // connection. A node that dies mid-chunk leaves its claim to expire and another run resends it.
+    private int dispatchChunk() {
+        DispatchBatchEvent event = new DispatchBatchEvent();
+        event.begin();
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        long dbStarted = System.nanoTime();
+        ClaimedChunk chunk = transactionOperations.execute(status -> claimChunk(now));
+        long dbTime = System.nanoTime() - dbStarted;
+        // The empty claim that ends every run is not a batch, so it records neither a size nor an event
+        if (chunk.claimed() == 0) {
+            return 0;
+        }
+        long sendTime = 0;
+        int sentCount = 0;
+        batchSize.record(chunk.claimed());
+
+        for (Reminder reminder : chunk.toSend()) {
+            long sendStarted = System.nanoTime();
             sendTelegramNotification(reminder);
-            reminder.setNotified(true);
-            reminderRepository.save(reminder);
+            sendTime += System.nanoTime() - sendStarted;
+            sentCount++;
+            dispatchLag.record(Duration.between(reminder.getRemindDate(), LocalDateTime.now(clock)));
         }
+
+        for (StaleSettlement stale : chunk.stale()) {
+            staleCounter.increment(stale.settled());
+            if (properties.stalePolicy() == StalePolicy.DIGEST) {
+                long sendStarted = System.nanoTime();
+                sendDigest(stale.reminders(), stale.settled());
+                sendTime += System.nanoTime() - sendStarted;
+                sentCount++;
+            }
+        }
+
+        if (!chunk.toSend().isEmpty()) {
+            long settleStarted = System.nanoTime();
+            transactionOperations.executeWithoutResult(status -> {
+                for (Reminder reminder : chunk.toSend()) {
+                    if (reminderRepository.markNotified(reminder.getId(), reminder.getRemindDate(), reminder.getVersion()) > 0) {
+                        reminder.setNotified(true);
+                    }
+                }
+            });
+            dbTime += System.nanoTime() - settleStarted;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.rowsClaimed = chunk.claimed();
+            event.sent = sentCount;
+            event.sendTime = sendTime;
+            event.dbTime = dbTime;
+            event.commit();
+        }
+        return chunk.claimed();
+    }
+
+    private ClaimedChunk claimChunk(LocalDateTime now) {
+        LocalDateTime claimedUntil = now.plus(properties.claimTimeout());
+        List<Long> ids = claimDueReminderIds(now, claimedUntil);
+        if (ids.isEmpty()) {
+            return new ClaimedChunk(0, List.of(), List.of());
+        }
+        List<Reminder> dueReminders = reminderRepository.findAllWithUserByIdInAndRemindDateBefore(ids, now);
+
+        LocalDateTime staleBefore = now.minus(properties.staleAfter());
+        List<Reminder> toSend = new ArrayList<>();
+        Map<Long, List<Reminder>> staleByUser = new LinkedHashMap<>();
+        for (Reminder reminder : dueReminders) {
+            if (properties.stalePolicy() != StalePolicy.SEND && reminder.getRemindDate().isBefore(staleBefore)) {
+                staleByUser.computeIfAbsent(reminder.getUser().getId(), userId -> new ArrayList<>()).add(reminder);
+            } else {
+                toSend.add(reminder);
+            }
+        }
+
+        List<StaleSettlement> stale = new ArrayList<>();
+        for (Map.Entry<Long, List<Reminder>> user : staleByUser.entrySet()) {
+            // Covers the user's unclaimed stale rows beyond this chunk too, so one digest or skip per user
+            // settles the backlog instead of repeating for every chunk
+            int settled = reminderRepository.markStaleNotified(user.getKey(), staleBefore, now, claimedUntil);
+            stale.add(new StaleSettlement(user.getValue(), settled));
+        }
+        return new ClaimedChunk(dueReminders.size(), toSend, stale);
+    }
+
+    // Without ownership every node claims from all users; the claim skips rows other nodes hold and
+    // takes the next ones. With it a node only claims its buckets; a sole member skips the bucket filter.
+    private List<Long> claimDueReminderIds(LocalDateTime now, LocalDateTime claimedUntil) {
+        if (ownership == null || ownership.ownedBuckets().size() == ownership.bucketCount()) {
+            return reminderRepository.claimDueReminderIds(
+                    now, claimedUntil, properties.perUserChunkLimit(), properties.chunkSize());
+        }
+        List<Integer> buckets = ownership.ownedBuckets();
+        if (buckets.isEmpty()) {
+            return List.of();
+        }
+        return reminderRepository.claimDueReminderIdsInBuckets(now, claimedUntil,
+                properties.perUserChunkLimit(), properties.chunkSize(), ownership.bucketCount(), buckets);
+    }
+
+    void sendDigest(List<Reminder> stale, int total) {
+        Locale locale = Locale.getDefault();
+        StringBuilder message = new StringBuilder(
+                messageSource.getMessage("reminder.digest.header", new Object[]{total}, locale));
+
+        int shown = Math.min(stale.size(), properties.digestMaxItems());
+        for (Reminder reminder : stale.subList(0, shown)) {
+            message.append('\n').append(messageSource.getMessage(
+                    "reminder.digest.item",
+                    new Object[]{reminder.getTitle(), reminder.getRemindDate()},
+                    locale
+            ));
+        }
+        if (total > shown) {
+            message.append('\n').append(
+                    messageSource.getMessage("reminder.digest.more", new Object[]{total - shown}, locale));
+        }
+
+        telegramService.sendMessage(stale.get(0).getUser().getChatId(), message.toString());
     }
 
     public void sendTelegramNotification(Reminder reminder) {
@@ -50,4 +235,10 @@ public class ReminderNotificationService {
 
         telegramService.sendMessage(chatId, message);
     }
-}
\ No newline at end of file
+
+    private record ClaimedChunk(int claimed, List<Reminder> toSend, List<StaleSettlement> stale) {
+    }
+
+    private record StaleSettlement(List<Reminder> reminders, int settled) {
+    }
+}
@@ -0,0 +1,52 @@
+package ru.mal.reminder.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.mal.reminder.repository.ReminderRepository;
+import ru.mal.reminder.scheduling.ClusterLock;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+@Slf4j
+@Service
+public class ReminderPartitionService {
+
+    private final ReminderRepository reminderRepository;
+    private final Clock clock;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public ReminderPartitionService(ReminderRepository reminderRepository,
+                                    Clock clock,
+                                    @Value("${reminder.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${reminder.partitions.retention-months:0}") int retentionMonths) {
+        this.reminderRepository = reminderRepository;
+        this.clock = clock;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    // Reminders due beyond the prepared months land in the default partition and are moved out
+    // once their month gets its own partition. A retention of 0 keeps every partition; expired
+    // partitions are copied into reminder_history before they go, and kept while any row is unsent.
+    @Scheduled(fixedDelayString = "${reminder.partitions.maintenance-interval:21600000}")
+    @ClusterLock("reminder-partitions")
+    public void maintainPartitions() {
+        LocalDate currentMonth = LocalDate.now(clock).withDayOfMonth(1);
+
+        int created = reminderRepository.createPartitions(currentMonth, currentMonth.plusMonths(monthsAhead));
+        if (created > 0) {
+            log.info("Created {} reminder partitions up to {}", created, currentMonth.plusMonths(monthsAhead));
+        }
+
+        if (retentionMonths > 0) {
+            int dropped = reminderRepository.dropPartitionsBefore(currentMonth.minusMonths(retentionMonths));
+            if (dropped > 0) {
+                log.info("Archived and dropped {} reminder partitions older than {} months", dropped, retentionMonths);
+            }
+        }
+    }
+}
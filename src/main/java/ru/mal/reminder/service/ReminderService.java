@@ -1,36 +1,66 @@
 package ru.mal.reminder.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.mal.reminder.dto.reminder.BatchOperationRequest;
+import ru.mal.reminder.dto.reminder.BatchOperationResult;
+import ru.mal.reminder.dto.reminder.BatchOperationType;
+import ru.mal.reminder.dto.reminder.PageResponse;
 import ru.mal.reminder.dto.reminder.ReminderRequest;
 import ru.mal.reminder.dto.reminder.ReminderResponse;
+import ru.mal.reminder.dto.reminder.ReminderSetVersion;
 import ru.mal.reminder.dto.reminder.SearchRequest;
+import ru.mal.reminder.jfr.ReminderSearchEvent;
 import ru.mal.reminder.model.Reminder;
+import ru.mal.reminder.model.ReminderWithHistory;
 import ru.mal.reminder.model.User;
 import ru.mal.reminder.repository.ReminderRepository;
+import ru.mal.reminder.repository.ReminderWithHistoryRepository;
 import ru.mal.reminder.repository.specification.ReminderSpecification;
+import ru.mal.reminder.util.SingleFlight;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "reminder.service", percentiles = {0.5, 0.95, 0.99})
 public class ReminderService {
 
     private final ReminderRepository reminderRepository;
     private final UserService userService;
     private final MessageSource messageSource;
+    private final IdempotencyService idempotencyService;
+    private final ReminderWithHistoryRepository reminderWithHistoryRepository;
+    private final SingleFlight<SearchKey, PageResponse<ReminderResponse>> searchFlights = new SingleFlight<>();
 
-    public ReminderService(ReminderRepository reminderRepository, UserService userService, MessageSource messageSource) {
+    public ReminderService(ReminderRepository reminderRepository, UserService userService, MessageSource messageSource,
+                           IdempotencyService idempotencyService,
+                           ReminderWithHistoryRepository reminderWithHistoryRepository) {
         this.reminderRepository = reminderRepository;
         this.userService = userService;
         this.messageSource = messageSource;
+        this.idempotencyService = idempotencyService;
+        this.reminderWithHistoryRepository = reminderWithHistoryRepository;
     }
 
     @Transactional
@@ -52,38 +82,120 @@ public class ReminderService {
     }
 
     @Transactional
-    public ReminderResponse updateReminder(Long id, ReminderRequest request, String keycloakId) {
-        User user = userService.findByKeycloakId(keycloakId)
-                .orElseThrow(() -> new RuntimeException(
-                        messageSource.getMessage("user.not.found", null, Locale.getDefault())
-                ));
+    public ReminderResponse createReminder(ReminderRequest request, String keycloakId, String idempotencyKey) {
+        ReminderResponse response = createReminder(request, keycloakId);
+        idempotencyService.remember(keycloakId, idempotencyKey, response);
+        return response;
+    }
 
-        Reminder reminder = reminderRepository.findByIdAndUserId(id, user.getId())
-                .orElseThrow(() -> new RuntimeException(
-                        messageSource.getMessage("reminder.not.found", null, Locale.getDefault())
-                ));
+    @Transactional
+    public ReminderResponse updateReminder(Long id, ReminderRequest request, String keycloakId) {
+        return updateReminder(id, request, keycloakId, null);
+    }
 
-        reminder.setTitle(request.getTitle());
-        reminder.setDescription(request.getDescription());
-        reminder.setRemindDate(request.getRemindDate());
+    @Transactional
+    public ReminderResponse updateReminder(Long id, ReminderRequest request, String keycloakId, Long expectedVersion) {
+        Optional<Reminder> updatedReminder = expectedVersion == null
+                ? reminderRepository.updateByIdAndKeycloakId(
+                        id, keycloakId, request.getTitle(), request.getDescription(), request.getRemindDate())
+                : reminderRepository.updateByIdAndKeycloakIdAndVersion(
+                        id, keycloakId, expectedVersion, request.getTitle(), request.getDescription(), request.getRemindDate());
 
-        Reminder updatedReminder = reminderRepository.save(reminder);
-        return mapToResponse(updatedReminder);
+        return updatedReminder
+                .map(this::mapToResponse)
+                .orElseThrow(() -> writeFailure(id, keycloakId, expectedVersion));
     }
 
     @Transactional
     public void deleteReminder(Long id, String keycloakId) {
+        if (reminderRepository.deleteByIdAndKeycloakId(id, keycloakId) == 0) {
+            throw writeFailure(id, keycloakId, null);
+        }
+    }
+
+    @Transactional
+    public List<BatchOperationResult> processBatch(List<BatchOperationRequest> operations, String keycloakId) {
         User user = userService.findByKeycloakId(keycloakId)
                 .orElseThrow(() -> new RuntimeException(
                         messageSource.getMessage("user.not.found", null, Locale.getDefault())
                 ));
 
-        Reminder reminder = reminderRepository.findByIdAndUserId(id, user.getId())
-                .orElseThrow(() -> new RuntimeException(
-                        messageSource.getMessage("reminder.not.found", null, Locale.getDefault())
-                ));
+        Set<Long> referencedIds = operations.stream()
+                .filter(operation -> operation.getType() != BatchOperationType.CREATE && operation.getId() != null)
+                .map(BatchOperationRequest::getId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Reminder> existing = referencedIds.isEmpty()
+                ? Map.of()
+                : reminderRepository.findAllByIdInAndUserId(referencedIds, user.getId()).stream()
+                        .collect(Collectors.toMap(Reminder::getId, Function.identity()));
+
+        List<Reminder> created = new ArrayList<>();
+        Set<Long> deletedIds = new HashSet<>();
+        Reminder[] touched = new Reminder[operations.size()];
+        BatchOperationResult[] results = new BatchOperationResult[operations.size()];
+
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationRequest operation = operations.get(i);
+            BatchOperationType type = operation.getType();
 
-        reminderRepository.delete(reminder);
+            if (type == BatchOperationType.CREATE) {
+                if (operation.getReminder() == null) {
+                    results[i] = failedOperation(i, operation, HttpStatus.BAD_REQUEST, "batch.operation.invalid");
+                    continue;
+                }
+                ReminderRequest request = operation.getReminder();
+                Reminder reminder = new Reminder(request.getTitle(), request.getDescription(), request.getRemindDate(), user);
+                created.add(reminder);
+                touched[i] = reminder;
+                continue;
+            }
+
+            if (operation.getId() == null || (type == BatchOperationType.UPDATE && operation.getReminder() == null)) {
+                results[i] = failedOperation(i, operation, HttpStatus.BAD_REQUEST, "batch.operation.invalid");
+                continue;
+            }
+
+            Reminder reminder = existing.get(operation.getId());
+            if (reminder == null || deletedIds.contains(reminder.getId())) {
+                results[i] = failedOperation(i, operation, HttpStatus.NOT_FOUND, "reminder.not.found");
+                continue;
+            }
+            if (operation.getVersion() != null && !operation.getVersion().equals(reminder.getVersion())) {
+                results[i] = failedOperation(i, operation, HttpStatus.PRECONDITION_FAILED, "reminder.version.conflict");
+                continue;
+            }
+
+            if (type == BatchOperationType.UPDATE) {
+                ReminderRequest request = operation.getReminder();
+                reminder.setTitle(request.getTitle());
+                reminder.setDescription(request.getDescription());
+                reminder.setRemindDate(request.getRemindDate());
+                touched[i] = reminder;
+            } else {
+                deletedIds.add(reminder.getId());
+                results[i] = new BatchOperationResult(i, type, reminder.getId(), HttpStatus.NO_CONTENT.value(), null, null);
+            }
+        }
+
+        reminderRepository.saveAll(created);
+        if (!deletedIds.isEmpty()) {
+            reminderRepository.deleteAllByIdInBatch(deletedIds);
+        }
+        reminderRepository.flush();
+
+        for (int i = 0; i < results.length; i++) {
+            Reminder reminder = touched[i];
+            if (results[i] == null && reminder != null) {
+                HttpStatus status = operations.get(i).getType() == BatchOperationType.CREATE
+                        ? HttpStatus.CREATED
+                        : HttpStatus.OK;
+                results[i] = new BatchOperationResult(
+                        i, operations.get(i).getType(), reminder.getId(), status.value(), mapToResponse(reminder), null
+                );
+            }
+        }
+        return List.of(results);
     }
 
     @Transactional(readOnly = true)
@@ -101,31 +213,80 @@ public class ReminderService {
         return mapToResponse(reminder);
     }
 
-    @Transactional(readOnly = true)
-    public List<ReminderResponse> searchReminders(SearchRequest searchRequest, String keycloakId) {
+    // Deliberately not transactional: callers waiting on an in-flight search must not hold a connection,
+    // the leader's repository call opens its own read-only transaction. The caller's set version is part
+    // of the key, so a search started before the latest write is never shared under the newer ETag.
+    public PageResponse<ReminderResponse> searchPage(SearchRequest searchRequest, String keycloakId,
+                                                     ReminderSetVersion setVersion) {
         User user = userService.findByKeycloakId(keycloakId)
                 .orElseThrow(() -> new RuntimeException(
                         messageSource.getMessage("user.not.found", null, Locale.getDefault())
                 ));
 
-        Specification<Reminder> spec = ReminderSpecification.buildSearchSpecification(searchRequest, user.getId());
         Pageable pageable = createPageable(searchRequest);
+        SearchKey key = SearchKey.of(user.getId(), setVersion, searchRequest, pageable);
 
-        Page<Reminder> reminders = reminderRepository.findAll(spec, pageable);
-        return reminders.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return searchFlights.execute(key, () -> {
+            ReminderSearchEvent event = new ReminderSearchEvent();
+            event.begin();
+
+            long queryStarted = System.nanoTime();
+            Page<ReminderResponse> reminders = findPage(searchRequest, user.getId(), pageable, event);
+            long queryTime = System.nanoTime() - queryStarted - event.countTime;
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.userId = user.getId();
+                event.filters = ReminderSpecification.describeFilters(searchRequest);
+                event.sort = pageable.getSort().toString();
+                event.page = pageable.getPageNumber();
+                event.size = pageable.getPageSize();
+                event.rowsReturned = reminders.getNumberOfElements();
+                event.totalElements = reminders.getTotalElements();
+                event.queryTime = queryTime;
+                event.commit();
+            }
+
+            return new PageResponse<>(
+                    reminders.getContent(),
+                    reminders.getTotalElements(), searchRequest.getPage(),
+                    searchRequest.getSize(), reminders.getTotalPages()
+            );
+        });
     }
 
     @Transactional(readOnly = true)
-    public Long countReminders(SearchRequest searchRequest, String keycloakId) {
+    public ReminderSetVersion getReminderSetVersion(String keycloakId) {
         User user = userService.findByKeycloakId(keycloakId)
                 .orElseThrow(() -> new RuntimeException(
                         messageSource.getMessage("user.not.found", null, Locale.getDefault())
                 ));
 
-        Specification<Reminder> spec = ReminderSpecification.buildSearchSpecification(searchRequest, user.getId());
-        return reminderRepository.count(spec);
+        return reminderRepository.findSetVersionByUserId(user.getId());
+    }
+
+    // Archived reminders only live behind the reminder_with_history view, the plain search keeps hitting the reminder table
+    private Page<ReminderResponse> findPage(SearchRequest searchRequest, Long userId, Pageable pageable,
+                                            ReminderSearchEvent event) {
+        if (searchRequest.isIncludeArchived()) {
+            Specification<ReminderWithHistory> spec = ReminderSpecification.buildSearchSpecification(searchRequest, userId);
+            return findPage(reminderWithHistoryRepository, spec, pageable, event).map(this::mapToResponse);
+        }
+        Specification<Reminder> spec = ReminderSpecification.buildSearchSpecification(searchRequest, userId);
+        return findPage(reminderRepository, spec, pageable, event).map(this::mapToResponse);
+    }
+
+    // Reads the page as a slice and runs the count separately, so the event can time it on its own.
+    // PageableExecutionUtils skips the count when the slice already shows the total, as findAll does.
+    private <T> Page<T> findPage(JpaSpecificationExecutor<T> repository, Specification<T> spec, Pageable pageable,
+                                 ReminderSearchEvent event) {
+        Slice<T> slice = repository.findBy(spec, query -> query.slice(pageable));
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable, () -> {
+            long countStarted = System.nanoTime();
+            long total = repository.count(spec);
+            event.countTime = System.nanoTime() - countStarted;
+            return total;
+        });
     }
 
     private Pageable createPageable(SearchRequest searchRequest) {
@@ -152,12 +313,82 @@ public class ReminderService {
         };
     }
 
-    private ReminderResponse mapToResponse(Reminder reminder) {
+    // Only reached when a single-statement write matched no row, so the extra lookups stay off the happy path
+    private RuntimeException writeFailure(Long id, String keycloakId, Long expectedVersion) {
+        User user = userService.findByKeycloakId(keycloakId)
+                .orElseThrow(() -> new RuntimeException(
+                        messageSource.getMessage("user.not.found", null, Locale.getDefault())
+                ));
+
+        if (expectedVersion != null && reminderRepository.findByIdAndUserId(id, user.getId()).isPresent()) {
+            return new ObjectOptimisticLockingFailureException(
+                    messageSource.getMessage("reminder.version.conflict", null, Locale.getDefault()),
+                    null
+            );
+        }
+        return new RuntimeException(
+                messageSource.getMessage("reminder.not.found", null, Locale.getDefault())
+        );
+    }
+
+    private BatchOperationResult failedOperation(int index, BatchOperationRequest operation, HttpStatus status, String messageKey) {
+        return new BatchOperationResult(
+                index, operation.getType(), operation.getId(), status.value(), null,
+                messageSource.getMessage(messageKey, null, Locale.getDefault())
+        );
+    }
+
+    ReminderResponse mapToResponse(Reminder reminder) {
         ReminderResponse response = new ReminderResponse();
         response.setId(reminder.getId());
         response.setTitle(reminder.getTitle());
         response.setDescription(reminder.getDescription());
         response.setRemindDate(reminder.getRemindDate());
+        response.setVersion(reminder.getVersion());
         return response;
     }
+
+    ReminderResponse mapToResponse(ReminderWithHistory reminder) {
+        ReminderResponse response = new ReminderResponse();
+        response.setId(reminder.getId());
+        response.setTitle(reminder.getTitle());
+        response.setDescription(reminder.getDescription());
+        response.setRemindDate(reminder.getRemindDate());
+        response.setVersion(reminder.getVersion());
+        response.setArchived(reminder.getArchived());
+        return response;
+    }
+
+    private record SearchKey(
+            Long userId,
+            ReminderSetVersion setVersion,
+            String title,
+            String description,
+            LocalDateTime dateFrom,
+            LocalDateTime dateTo,
+            boolean includeArchived,
+            Sort sort,
+            int page,
+            int size
+    ) {
+        static SearchKey of(Long userId, ReminderSetVersion setVersion, SearchRequest searchRequest, Pageable pageable) {
+            return new SearchKey(
+                    userId,
+                    setVersion,
+                    normalize(searchRequest.getTitle()),
+                    normalize(searchRequest.getDescription()),
+                    searchRequest.getDateFrom(),
+                    searchRequest.getDateTo(),
+                    searchRequest.isIncludeArchived(),
+                    pageable.getSort(),
+                    pageable.getPageNumber(),
+                    pageable.getPageSize()
+            );
+        }
+
+        // Mirrors ReminderSpecification: empty filters are ignored and matching is case-insensitive
+        private static String normalize(String filter) {
+            return filter == null || filter.isEmpty() ? null : filter.toLowerCase();
+        }
+    }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package ru.mal.reminder.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 import org.telegram.telegrambots.meta.generics.TelegramClient;
 
 @Slf4j
@@ -12,9 +15,15 @@ import org.telegram.telegrambots.meta.generics.TelegramClient;
 @RequiredArgsConstructor
 public class TelegramService {
 
+    private static final String SEND_TIMER = "telegram.send";
+
     private final TelegramClient telegramClient;
+    private final MeterRegistry meterRegistry;
 
     public void sendMessage(String chatId, String text) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        String code = "none";
         try {
             SendMessage message = SendMessage.builder()
                     .chatId(chatId)
@@ -24,7 +33,17 @@ public class TelegramService {
             telegramClient.execute(message);
 
         } catch (TelegramApiException e) {
+            outcome = "error";
+            code = e instanceof TelegramApiRequestException requestException && requestException.getErrorCode() != null
+                    ? String.valueOf(requestException.getErrorCode())
+                    : e.getClass().getSimpleName();
             log.error("Ошибка отправки Telegram сообщения: {}", e.getMessage());
+        } finally {
+            sample.stop(Timer.builder(SEND_TIMER)
+                    .description("Telegram sendMessage latency")
+                    .tag("outcome", outcome)
+                    .tag("code", code)
+                    .register(meterRegistry));
         }
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.mal.reminder.model.User;
 import ru.mal.reminder.repository.UserRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -25,6 +26,14 @@ public class UserService {
                 });
     }
 
+    @Transactional
+    public int createUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        return userRepository.insertIgnoringExisting(users);
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> findByKeycloakId(String keycloakId) {
         return userRepository.findByKeycloakId(keycloakId);
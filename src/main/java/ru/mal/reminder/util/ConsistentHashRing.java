@@ -0,0 +1,37 @@
+package ru.mal.reminder.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+public class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    // Every node is placed at several points so keys spread evenly, and a join or leave only moves
+    // the keys next to that node's points. Nodes are added in sorted order so every caller building
+    // a ring from the same members agrees on the rare point collision.
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        nodes.stream().sorted().forEach(node -> {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(node + '#' + i), node);
+            }
+        });
+    }
+
+    public String ownerOf(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> owner = ring.ceilingEntry(hash(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    // Name-based UUIDs are MD5 digests: well spread and identical on every node
+    private static long hash(String key) {
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).getMostSignificantBits();
+    }
+}
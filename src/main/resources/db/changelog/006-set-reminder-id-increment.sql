@@ -0,0 +1,2 @@
+ALTER TABLE reminder
+ALTER COLUMN id SET INCREMENT BY 50;
\ No newline at end of file
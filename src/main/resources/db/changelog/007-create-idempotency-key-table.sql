@@ -0,0 +1,11 @@
+CREATE TABLE idempotency_key (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    keycloak_id VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    response TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_idempotency_key UNIQUE (keycloak_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_key_expires_at ON idempotency_key (expires_at);
\ No newline at end of file
@@ -0,0 +1 @@
+CREATE INDEX idx_reminder_due ON reminder (remind, user_id) WHERE notified = false;
@@ -0,0 +1,108 @@
+--liquibase formatted sql
+
+--changeset reminder:009-create-partitioned-reminder-table
+CREATE SEQUENCE reminder_id_seq_new INCREMENT BY 50;
+
+CREATE TABLE reminder_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('reminder_id_seq_new'),
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(4096),
+    remind TIMESTAMP NOT NULL,
+    user_id BIGINT NOT NULL,
+    notified BOOLEAN NOT NULL DEFAULT FALSE,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_reminder PRIMARY KEY (id, remind),
+    CONSTRAINT fk_reminder_user FOREIGN KEY (user_id) REFERENCES app_user(id)
+) PARTITION BY RANGE (remind);
+
+CREATE TABLE reminder_default PARTITION OF reminder_partitioned DEFAULT;
+
+DROP INDEX idx_reminder_due;
+CREATE INDEX idx_reminder_due ON reminder_partitioned (remind, user_id) WHERE notified = false;
+CREATE INDEX idx_reminder_user_remind ON reminder_partitioned (user_id, remind);
+
+ALTER TABLE reminder RENAME TO reminder_unpartitioned;
+ALTER TABLE reminder_partitioned RENAME TO reminder;
+
+--changeset reminder:009-create-partitions-function splitStatements:false
+CREATE OR REPLACE FUNCTION reminder_create_partitions(from_month DATE, to_month DATE)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month)::date;
+    month_end DATE;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    -- Several application nodes run the maintenance job, only one at a time may change the layout
+    PERFORM pg_advisory_xact_lock(hashtext('reminder_partitions'));
+
+    WHILE month_start <= to_month LOOP
+        month_end := (month_start + INTERVAL '1 month')::date;
+        partition_name := format('reminder_p%s', to_char(month_start, 'YYYY_MM'));
+
+        IF to_regclass(partition_name) IS NULL THEN
+            -- Attaching fails while the default partition still holds rows of the new range,
+            -- so those rows move into the new table first
+            EXECUTE format('CREATE TABLE %I (LIKE reminder INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+            EXECUTE format('WITH moved AS (DELETE FROM reminder_default WHERE remind >= %L AND remind < %L RETURNING *) '
+                           'INSERT INTO %I SELECT * FROM moved', month_start, month_end, partition_name);
+            EXECUTE format('ALTER TABLE reminder ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, month_end);
+            created := created + 1;
+        END IF;
+
+        month_start := month_end;
+    END LOOP;
+
+    RETURN created;
+END;
+$$;
+
+--changeset reminder:009-drop-partitions-function splitStatements:false
+CREATE OR REPLACE FUNCTION reminder_drop_partitions(before_month DATE)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    old_partition RECORD;
+    dropped INT := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('reminder_partitions'));
+
+    FOR old_partition IN
+        SELECT child.relname
+        FROM pg_inherits
+        JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+        JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE parent.relname = 'reminder'
+          AND child.relname ~ '^reminder_p[0-9]{4}_[0-9]{2}$'
+          AND to_date(substring(child.relname FROM 11), 'YYYY_MM') < before_month
+    LOOP
+        EXECUTE format('ALTER TABLE reminder DETACH PARTITION %I', old_partition.relname);
+        EXECUTE format('DROP TABLE %I', old_partition.relname);
+        dropped := dropped + 1;
+    END LOOP;
+
+    RETURN dropped;
+END;
+$$;
+
+--changeset reminder:009-move-reminders-into-partitions
+SELECT reminder_create_partitions(
+    CAST(date_trunc('month', COALESCE((SELECT MIN(remind) FROM reminder_unpartitioned), now())) AS DATE),
+    CAST(date_trunc('month', now()) + INTERVAL '3 months' AS DATE)
+);
+
+INSERT INTO reminder (id, title, description, remind, user_id, notified, version)
+SELECT id, title, description, remind, user_id, notified, version
+FROM reminder_unpartitioned;
+
+DROP TABLE reminder_unpartitioned;
+
+ALTER SEQUENCE reminder_id_seq_new RENAME TO reminder_id_seq;
+ALTER SEQUENCE reminder_id_seq OWNED BY reminder.id;
+SELECT setval('reminder_id_seq', (SELECT COALESCE(MAX(id), 0) + 100 FROM reminder));
+
+ANALYZE reminder;
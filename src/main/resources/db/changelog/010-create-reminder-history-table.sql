@@ -0,0 +1,21 @@
+CREATE TABLE reminder_history (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(4096),
+    remind TIMESTAMP NOT NULL,
+    user_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_reminder_history_user FOREIGN KEY (user_id) REFERENCES app_user(id)
+);
+
+CREATE INDEX idx_reminder_history_user_remind ON reminder_history (user_id, remind);
+
+CREATE INDEX idx_reminder_notified ON reminder (remind) WHERE notified = true;
+
+CREATE VIEW reminder_with_history AS
+SELECT id, title, description, remind, user_id, notified, version, FALSE AS archived
+FROM reminder
+UNION ALL
+SELECT id, title, description, remind, user_id, TRUE AS notified, version, TRUE AS archived
+FROM reminder_history;
@@ -0,0 +1,7 @@
+CREATE TABLE dispatch_node (
+    node_id VARCHAR(255) PRIMARY KEY,
+    joined_at TIMESTAMP NOT NULL,
+    heartbeat_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_dispatch_node_heartbeat_at ON dispatch_node (heartbeat_at);
@@ -0,0 +1,46 @@
+--liquibase formatted sql
+
+--changeset reminder:012-archive-before-dropping-partitions splitStatements:false
+CREATE OR REPLACE FUNCTION reminder_drop_partitions(before_month DATE)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    old_partition RECORD;
+    has_unsent BOOLEAN;
+    dropped INT := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('reminder_partitions'));
+
+    FOR old_partition IN
+        SELECT child.relname
+        FROM pg_inherits
+        JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+        JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE parent.relname = 'reminder'
+          AND child.relname ~ '^reminder_p[0-9]{4}_[0-9]{2}$'
+          AND to_date(substring(child.relname FROM 11), 'YYYY_MM') < before_month
+    LOOP
+        -- Blocks writes until the partition is gone, so no row can turn unsent after the check
+        EXECUTE format('LOCK TABLE %I IN EXCLUSIVE MODE', old_partition.relname);
+
+        -- A partition that still holds unsent reminders is kept until the dispatcher settles them
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE notified = false)', old_partition.relname)
+            INTO has_unsent;
+        IF has_unsent THEN
+            RAISE WARNING 'Keeping partition %: it still holds unsent reminders', old_partition.relname;
+            CONTINUE;
+        END IF;
+
+        -- Rows the archiver has not reached yet stay visible in reminder_with_history
+        EXECUTE format('INSERT INTO reminder_history (id, title, description, remind, user_id, version, archived_at) '
+                       'SELECT id, title, description, remind, user_id, version, localtimestamp FROM %I '
+                       'ON CONFLICT (id) DO NOTHING', old_partition.relname);
+        EXECUTE format('ALTER TABLE reminder DETACH PARTITION %I', old_partition.relname);
+        EXECUTE format('DROP TABLE %I', old_partition.relname);
+        dropped := dropped + 1;
+    END LOOP;
+
+    RETURN dropped;
+END;
+$$;
@@ -0,0 +1,5 @@
+-- Set by the dispatcher when it claims a reminder, so the claim outlives the claiming transaction
+-- and the Telegram send runs without row locks; an expired claim is picked up again
+ALTER TABLE reminder ADD COLUMN claimed_until TIMESTAMP;
+
+CREATE INDEX idx_reminder_due_user ON reminder (user_id, remind) WHERE notified = false;
@@ -0,0 +1,145 @@
+package ru.mal.reminder.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.mal.reminder.dto.TokenResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.mockito.Mockito;
+
+@ExtendWith(MockitoExtension.class)
+class KeycloakAdminTokenManagerTest {
+
+    @Mock
+    private KeycloakClient keycloakClient;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+    private final List<Runnable> scheduledRefreshes = new ArrayList<>();
+
+    private KeycloakAdminTokenManager tokenManager;
+
+    @BeforeEach
+    void setUp() {
+        tokenManager = new KeycloakAdminTokenManager(
+                keycloakClient, scheduledRefreshes::add, clock, 0.75, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void getAccessToken_ShouldReuseCachedToken_WhileItIsFresh() {
+        // Given
+        Mockito.when(keycloakClient.adminLogin()).thenReturn(createTokenResponse("token-1", 60));
+
+        // When
+        String first = tokenManager.getAccessToken();
+        clock.advance(Duration.ofSeconds(30));
+        String second = tokenManager.getAccessToken();
+
+        // Then
+        Assertions.assertThat(first).isEqualTo("token-1");
+        Assertions.assertThat(second).isEqualTo("token-1");
+        Assertions.assertThat(scheduledRefreshes).isEmpty();
+        Mockito.verify(keycloakClient, Mockito.times(1)).adminLogin();
+    }
+
+    @Test
+    void getAccessToken_ShouldRefreshInBackground_WhenTokenIsCloseToExpiry() {
+        // Given
+        Mockito.when(keycloakClient.adminLogin())
+                .thenReturn(createTokenResponse("token-1", 60))
+                .thenReturn(createTokenResponse("token-2", 60));
+        tokenManager.getAccessToken();
+
+        // When
+        clock.advance(Duration.ofSeconds(50));
+        String beforeRefresh = tokenManager.getAccessToken();
+        tokenManager.getAccessToken();
+        scheduledRefreshes.forEach(Runnable::run);
+        String afterRefresh = tokenManager.getAccessToken();
+
+        // Then
+        Assertions.assertThat(beforeRefresh).isEqualTo("token-1");
+        Assertions.assertThat(scheduledRefreshes).hasSize(1);
+        Assertions.assertThat(afterRefresh).isEqualTo("token-2");
+        Mockito.verify(keycloakClient, Mockito.times(2)).adminLogin();
+    }
+
+    @Test
+    void getAccessToken_ShouldRefreshSynchronously_WhenTokenHasExpired() {
+        // Given
+        Mockito.when(keycloakClient.adminLogin())
+                .thenReturn(createTokenResponse("token-1", 60))
+                .thenReturn(createTokenResponse("token-2", 60));
+        tokenManager.getAccessToken();
+
+        // When
+        clock.advance(Duration.ofSeconds(56));
+        String token = tokenManager.getAccessToken();
+
+        // Then
+        Assertions.assertThat(token).isEqualTo("token-2");
+        Assertions.assertThat(scheduledRefreshes).isEmpty();
+    }
+
+    @Test
+    void invalidate_ShouldForceNewLogin() {
+        // Given
+        Mockito.when(keycloakClient.adminLogin())
+                .thenReturn(createTokenResponse("token-1", 60))
+                .thenReturn(createTokenResponse("token-2", 60));
+        tokenManager.getAccessToken();
+
+        // When
+        tokenManager.invalidate();
+        String token = tokenManager.getAccessToken();
+
+        // Then
+        Assertions.assertThat(token).isEqualTo("token-2");
+    }
+
+    private TokenResponse createTokenResponse(String accessToken, int expiresIn) {
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken(accessToken);
+        tokenResponse.setExpiresIn(expiresIn);
+        tokenResponse.setTokenType("Bearer");
+        return tokenResponse;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.mal.reminder.client;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,14 +10,16 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.context.support.StaticMessageSource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 import ru.mal.reminder.config.KeycloakProperties;
+import ru.mal.reminder.config.KeycloakResilienceProperties;
 import ru.mal.reminder.dto.TokenResponse;
-import ru.mal.reminder.dto.keycloak.KeycloakCredentialsRepresentation;
 import ru.mal.reminder.dto.keycloak.KeycloakUserRepresentation;
 
 import java.net.URI;
+import java.time.Duration;
 
 import org.mockito.ArgumentMatchers;
 import org.assertj.core.api.Assertions;
@@ -43,7 +46,10 @@ class KeycloakClientTest {
         Mockito.lenient().when(keycloakProperties.serverUrl()).thenReturn(SERVER_URL);
         Mockito.lenient().when(keycloakProperties.realm()).thenReturn(REALM);
 
-        keycloakClient = new KeycloakClient(restTemplate, keycloakProperties);
+        KeycloakGuard guard = new KeycloakGuard(new KeycloakResilienceProperties(
+                20, Duration.ofMillis(100), 50, Duration.ofSeconds(2), 50, 20, 10, Duration.ofSeconds(10), 3),
+                new StaticMessageSource(), new SimpleMeterRegistry());
+        keycloakClient = new KeycloakClient(restTemplate, keycloakProperties, guard);
     }
 
     @Test
@@ -96,28 +102,10 @@ class KeycloakClientTest {
     }
 
     @Test
-    void resetUserPassword_ShouldCallKeycloakApi() {
+    void getRealmRole_ShouldReuseCachedRole_ForSubsequentLookups() {
         // Given
-        String userId = "user-id-123";
-        String adminToken = "admin-token";
-        KeycloakCredentialsRepresentation credentials = new KeycloakCredentialsRepresentation(
-                "password", "new-password", false
-        );
-
-        // When
-        keycloakClient.resetUserPassword(userId, credentials, adminToken);
-
-        // Then
-        Mockito.verify(restTemplate, Mockito.times(1)).put(ArgumentMatchers.anyString(), ArgumentMatchers.any(HttpEntity.class));
-    }
-
-    @Test
-    void assignUserRole_ShouldAssignRole_WhenRoleExists() {
-        // Given
-        String userId = "user-id-123";
         String adminToken = "admin-token";
         String roleName = "user";
-
         Object roleRepresentation = new Object();
 
         Mockito.when(restTemplate.exchange(
@@ -127,24 +115,19 @@ class KeycloakClientTest {
                 ArgumentMatchers.eq(Object.class)
         )).thenReturn(ResponseEntity.ok(roleRepresentation));
 
-        Mockito.when(restTemplate.postForEntity(
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.any(HttpEntity.class),
-                ArgumentMatchers.eq(Void.class)
-        )).thenReturn(ResponseEntity.ok().build());
-
         // When
-        keycloakClient.assignUserRole(userId, roleName, adminToken);
+        Object first = keycloakClient.getRealmRole(roleName, adminToken);
+        Object second = keycloakClient.getRealmRole(roleName, adminToken);
 
         // Then
+        Assertions.assertThat(first).isSameAs(roleRepresentation);
+        Assertions.assertThat(second).isSameAs(roleRepresentation);
         Mockito.verify(restTemplate, Mockito.times(1)).exchange(ArgumentMatchers.anyString(), ArgumentMatchers.eq(HttpMethod.GET), ArgumentMatchers.any(HttpEntity.class), ArgumentMatchers.eq(Object.class));
-        Mockito.verify(restTemplate, Mockito.times(1)).postForEntity(ArgumentMatchers.anyString(), ArgumentMatchers.any(HttpEntity.class), ArgumentMatchers.eq(Void.class));
     }
 
     @Test
-    void assignUserRole_ShouldNotAssignRole_WhenRoleDoesNotExist() {
+    void getRealmRole_ShouldReturnNull_WhenRoleDoesNotExist() {
         // Given
-        String userId = "user-id-123";
         String adminToken = "admin-token";
         String roleName = "non-existent-role";
 
@@ -156,11 +139,10 @@ class KeycloakClientTest {
         )).thenReturn(ResponseEntity.notFound().build());
 
         // When
-        keycloakClient.assignUserRole(userId, roleName, adminToken);
+        Object role = keycloakClient.getRealmRole(roleName, adminToken);
 
         // Then
-        Mockito.verify(restTemplate, Mockito.times(1)).exchange(ArgumentMatchers.anyString(), ArgumentMatchers.eq(HttpMethod.GET), ArgumentMatchers.any(HttpEntity.class), ArgumentMatchers.eq(Object.class));
-        Mockito.verify(restTemplate, Mockito.never()).postForEntity(ArgumentMatchers.anyString(), ArgumentMatchers.any(HttpEntity.class), ArgumentMatchers.eq(Void.class));
+        Assertions.assertThat(role).isNull();
     }
 
     @Test
@@ -0,0 +1,144 @@
+package ru.mal.reminder.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.web.client.RestTemplate;
+import ru.mal.reminder.config.KeycloakProperties;
+import ru.mal.reminder.config.KeycloakResilienceProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+
+class KeycloakGuardTest {
+
+    private static final String TOKEN_BODY = "{\"access_token\":\"token\",\"expires_in\":300,\"token_type\":\"Bearer\"}";
+    private static final String UNAVAILABLE_MESSAGE = "Keycloak unavailable";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private volatile long latencyMillis;
+
+    private HttpServer server;
+    private KeycloakProperties keycloakProperties;
+    private StaticMessageSource messageSource;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::respondWithLatency);
+        server.start();
+
+        keycloakProperties = new KeycloakProperties(
+                "http://127.0.0.1:" + server.getAddress().getPort(),
+                "test-realm", "client", "secret", "admin-cli", "admin", "admin");
+        messageSource = new StaticMessageSource();
+        messageSource.addMessage("keycloak.unavailable", Locale.getDefault(), UNAVAILABLE_MESSAGE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void userLogin_ShouldRejectExcessCalls_WhenBulkheadIsFull() throws Exception {
+        // Given
+        latencyMillis = 500;
+        KeycloakClient keycloakClient = createClient(properties(2, Duration.ofMillis(10), Duration.ofSeconds(5), 100));
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+
+        // When
+        List<CompletableFuture<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return keycloakClient.userLogin("user", "password");
+                } catch (KeycloakUnavailableException e) {
+                    return e;
+                }
+            }, callers));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        // Then
+        long rejected = calls.stream()
+                .map(CompletableFuture::join)
+                .filter(KeycloakUnavailableException.class::isInstance)
+                .count();
+        Assertions.assertThat(rejected).isEqualTo(4);
+        Assertions.assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void userLogin_ShouldFailFast_WhenCircuitIsOpenAfterSlowCalls() {
+        // Given
+        latencyMillis = 200;
+        KeycloakGuard guard = new KeycloakGuard(properties(10, Duration.ZERO, Duration.ofMillis(50), 2), messageSource, meterRegistry);
+        KeycloakClient keycloakClient = new KeycloakClient(new RestTemplate(), keycloakProperties, guard);
+
+        keycloakClient.userLogin("user", "password");
+        keycloakClient.userLogin("user", "password");
+
+        // When
+        long startedAt = System.nanoTime();
+        Throwable thrown = Assertions.catchThrowable(() -> keycloakClient.userLogin("user", "password"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        // Then
+        Assertions.assertThat(guard.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(thrown)
+                .isInstanceOf(KeycloakUnavailableException.class)
+                .hasMessage(UNAVAILABLE_MESSAGE);
+        Assertions.assertThat(elapsedMillis).isLessThan(latencyMillis);
+        Assertions.assertThat(requests.get()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("keycloak.client.requests")
+                .tags("operation", "userLogin", "outcome", "rejected").timer().count()).isEqualTo(1);
+    }
+
+    private KeycloakClient createClient(KeycloakResilienceProperties properties) {
+        return new KeycloakClient(new RestTemplate(), keycloakProperties, new KeycloakGuard(properties, messageSource, meterRegistry));
+    }
+
+    private KeycloakResilienceProperties properties(int maxConcurrentCalls, Duration maxWait,
+                                                    Duration slowCallThreshold, int minimumCalls) {
+        return new KeycloakResilienceProperties(
+                maxConcurrentCalls, maxWait, 50, slowCallThreshold, 50, minimumCalls, minimumCalls,
+                Duration.ofSeconds(30), 1);
+    }
+
+    private void respondWithLatency(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = TOKEN_BODY.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
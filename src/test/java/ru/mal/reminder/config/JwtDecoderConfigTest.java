@@ -0,0 +1,137 @@
+package ru.mal.reminder.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+
+class JwtDecoderConfigTest {
+
+    private final JwtDecoderConfig config = new JwtDecoderConfig();
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+
+    private HttpServer server;
+    private RSAKey signingKey;
+    private KeycloakProperties keycloakProperties;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+        byte[] jwks = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/realms/test-realm/protocol/openid-connect/certs", exchange -> {
+            jwksRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(jwks);
+            }
+        });
+        server.start();
+
+        keycloakProperties = new KeycloakProperties(
+                "http://127.0.0.1:" + server.getAddress().getPort(),
+                "test-realm", "client", "secret", "admin-cli", "admin", "admin");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void jwksPrefetcher_ShouldLoadKeys_BeforeFirstDecode() throws Exception {
+        // Given
+        JWKSource<SecurityContext> jwkSource = config.jwkSource(properties(), new OAuth2ResourceServerProperties(), keycloakProperties);
+
+        // When
+        config.jwksPrefetcher(jwkSource).run(null);
+        JwtDecoder decoder = config.jwtDecoder(jwkSource, properties(), new OAuth2ResourceServerProperties(), Clock.systemUTC());
+        Jwt jwt = decoder.decode(signedToken("user-id-123"));
+
+        // Then
+        Assertions.assertThat(jwt.getSubject()).isEqualTo("user-id-123");
+        Assertions.assertThat(jwksRequests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void jwtDecoder_ShouldServeKeysFromCache_ForSubsequentTokens() throws Exception {
+        // Given
+        JWKSource<SecurityContext> jwkSource = config.jwkSource(properties(), new OAuth2ResourceServerProperties(), keycloakProperties);
+        JwtDecoder decoder = config.jwtDecoder(jwkSource, properties(), new OAuth2ResourceServerProperties(), Clock.systemUTC());
+
+        // When
+        decoder.decode(signedToken("user-1"));
+        decoder.decode(signedToken("user-2"));
+        decoder.decode(signedToken("user-3"));
+
+        // Then
+        Assertions.assertThat(jwksRequests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void jwkSetUri_ShouldPreferConfiguredUri_OverKeycloakFallback() {
+        // Given
+        OAuth2ResourceServerProperties resourceServerProperties = new OAuth2ResourceServerProperties();
+        resourceServerProperties.getJwt().setIssuerUri("http://issuer/realms/test-realm");
+
+        // When
+        String fromIssuer = JwtDecoderConfig.jwkSetUri(resourceServerProperties, keycloakProperties);
+        String fallback = JwtDecoderConfig.jwkSetUri(new OAuth2ResourceServerProperties(), keycloakProperties);
+
+        // Then
+        Assertions.assertThat(fromIssuer).isEqualTo("http://issuer/realms/test-realm/protocol/openid-connect/certs");
+        Assertions.assertThat(fallback).isEqualTo(keycloakProperties.serverUrl() + "/realms/test-realm/protocol/openid-connect/certs");
+    }
+
+    private JwtDecoderProperties properties() {
+        return new JwtDecoderProperties(
+                Duration.ofMinutes(15),
+                Duration.ofMinutes(1),
+                Duration.ofSeconds(5),
+                Duration.ofHours(6),
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1),
+                100
+        );
+    }
+
+    private String signedToken(String subject) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(subject)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+}
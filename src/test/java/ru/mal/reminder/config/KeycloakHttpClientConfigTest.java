@@ -0,0 +1,141 @@
+package ru.mal.reminder.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+
+class KeycloakHttpClientConfigTest {
+
+    private final KeycloakHttpClientConfig config = new KeycloakHttpClientConfig();
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer server;
+    private String baseUrl;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ok", exchange -> respond(exchange, "ok"));
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "slow");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        release.countDown();
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void keycloakRestTemplate_ShouldReuseConnection_ForSequentialRequests() {
+        // Given
+        RestTemplate restTemplate = createRestTemplate(properties(Duration.ofSeconds(2), Duration.ofSeconds(1), 5));
+
+        // When
+        String first = restTemplate.getForObject(baseUrl + "/ok", String.class);
+        String second = restTemplate.getForObject(baseUrl + "/ok", String.class);
+
+        // Then
+        Assertions.assertThat(first).isEqualTo("ok");
+        Assertions.assertThat(second).isEqualTo("ok");
+        Assertions.assertThat(clientPorts).hasSize(2);
+        Assertions.assertThat(clientPorts.get(1)).isEqualTo(clientPorts.get(0));
+        Assertions.assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void keycloakRestTemplate_ShouldFail_WhenResponseExceedsReadTimeout() {
+        // Given
+        RestTemplate restTemplate = createRestTemplate(properties(Duration.ofMillis(200), Duration.ofSeconds(1), 5));
+
+        // When & Then
+        Assertions.assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/slow", String.class))
+                .isInstanceOf(ResourceAccessException.class);
+    }
+
+    @Test
+    void keycloakRestTemplate_ShouldFail_WhenPoolIsExhausted() throws Exception {
+        // Given
+        RestTemplate restTemplate = createRestTemplate(properties(Duration.ofSeconds(5), Duration.ofMillis(200), 1));
+        CompletableFuture<String> blocking = CompletableFuture.supplyAsync(
+                () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+        awaitLeasedConnection();
+
+        // When & Then
+        Assertions.assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/ok", String.class))
+                .isInstanceOf(ResourceAccessException.class);
+
+        release.countDown();
+        Assertions.assertThat(blocking.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    }
+
+    private RestTemplate createRestTemplate(KeycloakHttpProperties properties) {
+        connectionManager = config.keycloakConnectionManager(properties);
+        httpClient = config.keycloakHttpClient(connectionManager, properties);
+        return config.keycloakRestTemplate(httpClient);
+    }
+
+    private KeycloakHttpProperties properties(Duration readTimeout, Duration connectionRequestTimeout, int maxConnections) {
+        return new KeycloakHttpProperties(
+                Duration.ofSeconds(1),
+                readTimeout,
+                connectionRequestTimeout,
+                Duration.ofSeconds(30),
+                Duration.ofMinutes(5),
+                maxConnections,
+                maxConnections
+        );
+    }
+
+    private void awaitLeasedConnection() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (connectionManager.getTotalStats().getLeased() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
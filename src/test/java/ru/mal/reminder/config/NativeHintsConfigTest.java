@@ -0,0 +1,34 @@
+package ru.mal.reminder.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+import ru.mal.reminder.dto.keycloak.KeycloakCredentialsRepresentation;
+import ru.mal.reminder.dto.keycloak.KeycloakUserRepresentation;
+
+import org.assertj.core.api.Assertions;
+
+class NativeHintsConfigTest {
+
+    @Test
+    void registerHints_ShouldCoverPayloadsOutsideControllers() {
+        // Given
+        RuntimeHints hints = new RuntimeHints();
+
+        // When
+        new NativeHintsConfig.ReminderRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        Assertions.assertThat(RuntimeHintsPredicates.reflection()
+                .onType(KeycloakUserRepresentation.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        Assertions.assertThat(RuntimeHintsPredicates.reflection()
+                .onType(KeycloakCredentialsRepresentation.class)).accepts(hints);
+        Assertions.assertThat(RuntimeHintsPredicates.reflection().onType(Message.class)).accepts(hints);
+        Assertions.assertThat(RuntimeHintsPredicates.resource()
+                .forResource("db/changelog/002-create-reminder-table.sql")).accepts(hints);
+        Assertions.assertThat(RuntimeHintsPredicates.resource().forResource("jfr/reminder.jfc")).accepts(hints);
+    }
+}
@@ -0,0 +1,145 @@
+package ru.mal.reminder.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.assertj.core.api.Assertions;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ReadReplicaRoutingTest {
+
+    @Container
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:13").withDatabaseName("primary_db");
+
+    @Container
+    static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:13").withDatabaseName("replica_db");
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T09:00:00Z"));
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadYourWritesTracker tracker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool(PRIMARY);
+        replica = pool(REPLICA);
+        tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), 100, clock);
+
+        DataSource dataSource = ReadReplicaConfig.routingDataSource(primary, replica, tracker);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(tracker);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.unbind();
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica_AndReadWriteTransaction_ShouldUsePrimary() {
+        // When
+        String readOnlyDatabase = readOnly.execute(status -> currentDatabase());
+        String readWriteDatabase = readWrite.execute(status -> currentDatabase());
+
+        // Then
+        Assertions.assertThat(readOnlyDatabase).isEqualTo("replica_db");
+        Assertions.assertThat(readWriteDatabase).isEqualTo("primary_db");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldStickToPrimary_WhenUserWroteRecently() {
+        // Given
+        tracker.bind("writer");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        // When
+        String writerRead = readOnly.execute(status -> currentDatabase());
+        tracker.bind("someone-else");
+        String otherRead = readOnly.execute(status -> currentDatabase());
+
+        // Then
+        Assertions.assertThat(writerRead).isEqualTo("primary_db");
+        Assertions.assertThat(otherRead).isEqualTo("replica_db");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldReturnToReplica_AfterStickyWindow() {
+        // Given
+        tracker.bind("writer");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        clock.advance(Duration.ofSeconds(6));
+
+        // When
+        String database = readOnly.execute(status -> currentDatabase());
+
+        // Then
+        Assertions.assertThat(database).isEqualTo("replica_db");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> container) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(container.getJdbcUrl());
+        dataSource.setUsername(container.getUsername());
+        dataSource.setPassword(container.getPassword());
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
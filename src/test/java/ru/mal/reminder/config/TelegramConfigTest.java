@@ -0,0 +1,22 @@
+package ru.mal.reminder.config;
+
+import okhttp3.Protocol;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+
+class TelegramConfigTest {
+
+    private final TelegramConfig config = new TelegramConfig();
+
+    @Test
+    void telegramHttpClient_ShouldOnlyOfferHttp11() {
+        // When
+        List<Protocol> protocols = config.telegramHttpClient().protocols();
+
+        // Then
+        Assertions.assertThat(protocols).containsExactly(Protocol.HTTP_1_1);
+    }
+}
@@ -0,0 +1,177 @@
+package ru.mal.reminder.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.mal.reminder.ReminderApplication;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+
+import static ru.mal.reminder.Consts.*;
+
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class VirtualThreadsBenchmarkTest {
+
+    private static final int REQUESTS = 2000;
+    private static final int WARM_UP_REQUESTS = 100;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long KEYCLOAK_LATENCY_MS = 100;
+    private static final String REALM = "benchmark";
+    private static final String LOGIN_BODY = "{\"username\":\"user\",\"password\":\"password\"}";
+    private static final String TOKEN_BODY = """
+            {"access_token":"access","refresh_token":"refresh","expires_in":300,"refresh_expires_in":1800,"token_type":"Bearer"}""";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private HttpServer keycloak;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        keycloak = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), REQUESTS);
+        keycloak.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        keycloak.createContext(REALMS_PATH + REALM + TOKEN_PATH, this::issueTokenSlowly);
+        keycloak.createContext(REALMS_PATH + REALM + "/protocol/openid-connect/certs",
+                exchange -> respond(exchange, "{\"keys\":[]}"));
+        keycloak.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        keycloak.stop(0);
+    }
+
+    @Test
+    void loginBurst_PlatformVersusVirtualThreads() throws Exception {
+        // When
+        long platformNanos = runAgainstApplication(false);
+        int platformPeak = peakInFlight.get();
+        long virtualNanos = runAgainstApplication(true);
+        int virtualPeak = peakInFlight.get();
+
+        // Then
+        System.out.printf("POST /api/auth/login: %d requests, %d ms Keycloak token latency%n", REQUESTS, KEYCLOAK_LATENCY_MS);
+        System.out.printf("  platform (%d Tomcat threads): %6d ms, peak Keycloak concurrency %5d%n",
+                TOMCAT_MAX_THREADS, platformNanos / 1_000_000, platformPeak);
+        System.out.printf("  virtual threads             : %6d ms, peak Keycloak concurrency %5d%n",
+                virtualNanos / 1_000_000, virtualPeak);
+
+        Assertions.assertThat(platformPeak).isLessThanOrEqualTo(TOMCAT_MAX_THREADS);
+        Assertions.assertThat(virtualPeak).isGreaterThan(TOMCAT_MAX_THREADS);
+        Assertions.assertThat(virtualNanos).isLessThan(platformNanos);
+    }
+
+    private long runAgainstApplication(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI loginUri = URI.create("http://127.0.0.1:" + port + "/api/auth/login");
+
+            login(loginUri, WARM_UP_REQUESTS);
+            peakInFlight.set(0);
+
+            long started = System.nanoTime();
+            login(loginUri, REQUESTS);
+            return System.nanoTime() - started;
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        String keycloakUrl = "http://127.0.0.1:" + keycloak.getAddress().getPort();
+        return new SpringApplicationBuilder(ReminderApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                        "spring.datasource.username=" + POSTGRES.getUsername(),
+                        "spring.datasource.password=" + POSTGRES.getPassword(),
+                        "spring.liquibase.change-log=classpath:db/changelog/master.xml",
+                        "spring.security.oauth2.resourceserver.jwt.issuer-uri=" + keycloakUrl + REALMS_PATH + REALM,
+                        "spring.security.oauth2.resourceserver.jwt.jwk-set-uri="
+                                + keycloakUrl + REALMS_PATH + REALM + "/protocol/openid-connect/certs",
+                        "telegram.bot.token=benchmark-token",
+                        "keycloak.server-url=" + keycloakUrl,
+                        "keycloak.realm=" + REALM,
+                        "keycloak.client-id=reminder",
+                        "keycloak.client-secret=unused",
+                        "keycloak.admin-client-id=admin-cli",
+                        "keycloak.admin-username=admin",
+                        "keycloak.admin-password=unused",
+                        "keycloak.http.max-connections-total=" + REQUESTS,
+                        "keycloak.http.max-connections-per-route=" + REQUESTS,
+                        "keycloak.http.connection-request-timeout=30s",
+                        "keycloak.resilience.max-concurrent-calls=" + REQUESTS,
+                        "keycloak.resilience.max-wait-duration=30s")
+                .run();
+    }
+
+    private void login(URI loginUri, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(loginUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                .build();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<HttpResponse<String>>> calls = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                calls.add(executor.submit(() -> httpClient.send(request, HttpResponse.BodyHandlers.ofString())));
+            }
+            for (Future<HttpResponse<String>> call : calls) {
+                Assertions.assertThat(call.get().statusCode()).isEqualTo(200);
+            }
+        }
+    }
+
+    private void issueTokenSlowly(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+        try {
+            Thread.sleep(KEYCLOAK_LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        respond(exchange, TOKEN_BODY);
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.mal.reminder.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+
+import org.assertj.core.api.Assertions;
+
+class ReminderJfrSettingsTest {
+
+    @Test
+    void customEvents_ShouldBeDisabledByDefault() {
+        // When & Then
+        Assertions.assertThat(EventType.getEventType(DispatchBatchEvent.class).isEnabled()).isFalse();
+        Assertions.assertThat(EventType.getEventType(ReminderSearchEvent.class).isEnabled()).isFalse();
+        Assertions.assertThat(EventType.getEventType(KeycloakCallEvent.class).isEnabled()).isFalse();
+    }
+
+    @Test
+    void settingsProfile_ShouldEnableAllCustomEvents() throws Exception {
+        // Given
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(
+                Objects.requireNonNull(getClass().getResourceAsStream("/jfr/reminder.jfc")), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+
+        // When
+        Map<String, String> settings = configuration.getSettings();
+
+        // Then
+        Assertions.assertThat(settings)
+                .containsEntry("ru.mal.reminder.DispatchBatch#enabled", "true")
+                .containsEntry("ru.mal.reminder.ReminderSearch#enabled", "true")
+                .containsEntry("ru.mal.reminder.KeycloakCall#enabled", "true");
+    }
+}
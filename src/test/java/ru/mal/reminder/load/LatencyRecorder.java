@@ -0,0 +1,56 @@
+package ru.mal.reminder.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class LatencyRecorder {
+
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+
+    void record(String operation, long nanos, boolean success) {
+        latencies.computeIfAbsent(operation, key -> new ConcurrentLinkedQueue<>()).add(nanos);
+        if (!success) {
+            errors.computeIfAbsent(operation, key -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    int total() {
+        return latencies.values().stream().mapToInt(ConcurrentLinkedQueue::size).sum();
+    }
+
+    int errors() {
+        return errors.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    String report(long elapsedNanos) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-10s %8s %8s %10s %10s %10s%n", "operation", "count", "errors", "req/s", "p50 ms", "p99 ms"));
+        for (Map.Entry<String, ConcurrentLinkedQueue<Long>> entry : new TreeMap<>(latencies).entrySet()) {
+            List<Long> sorted = new ArrayList<>(entry.getValue());
+            sorted.sort(null);
+            AtomicInteger failed = errors.get(entry.getKey());
+            report.append(String.format("%-10s %8d %8d %10.1f %10.2f %10.2f%n",
+                    entry.getKey(),
+                    sorted.size(),
+                    failed == null ? 0 : failed.get(),
+                    sorted.size() / (elapsedNanos / 1e9),
+                    percentile(sorted, 0.50) / 1e6,
+                    percentile(sorted, 0.99) / 1e6));
+        }
+        return report.toString();
+    }
+
+    static long percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
@@ -0,0 +1,269 @@
+package ru.mal.reminder.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+
+@Slf4j
+@Tag("load")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(ReminderLoadTest.StubTelegramConfig.class)
+class ReminderLoadTest {
+
+    private static final int USERS = 50;
+    private static final int ITERATIONS_PER_USER = 40;
+    private static final int BURST_SIZE = 2_000;
+    private static final Duration TELEGRAM_LATENCY = Duration.ofMillis(20);
+    private static final double TELEGRAM_TOO_MANY_REQUESTS_RATE = 0.02;
+    private static final DateTimeFormatter REMIND_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    static final StubTelegram TELEGRAM = new StubTelegram();
+    static StubOidcIssuer issuer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long crudElapsedNanos;
+
+    @BeforeAll
+    static void startIssuer() throws Exception {
+        issuer = new StubOidcIssuer();
+    }
+
+    @AfterAll
+    static void stopIssuer() {
+        issuer.close();
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.liquibase.change-log", () -> "classpath:db/changelog/master.xml");
+        registry.add("spring.security.oauth2.resourceserver.jwt.issuer-uri", () -> issuer.issuer());
+        registry.add("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", () -> issuer.jwkSetUri());
+        registry.add("telegram.bot.token", () -> "load-test-token");
+        registry.add("scheduler.check-interval", () -> "500");
+        registry.add("keycloak.server-url", () -> "http://127.0.0.1:9");
+        registry.add("keycloak.realm", () -> "load-test");
+        registry.add("keycloak.client-id", () -> "reminder");
+        registry.add("keycloak.client-secret", () -> "unused");
+        registry.add("keycloak.admin-client-id", () -> "admin-cli");
+        registry.add("keycloak.admin-username", () -> "admin");
+        registry.add("keycloak.admin-password", () -> "unused");
+    }
+
+    @Test
+    void mixedTrafficAndNotificationBurst() throws Exception {
+        List<String> users = createUsers();
+        TELEGRAM.setLatency(TELEGRAM_LATENCY);
+        TELEGRAM.setTooManyRequestsRate(TELEGRAM_TOO_MANY_REQUESTS_RATE);
+
+        LatencyRecorder crud = runMixedTraffic(users);
+
+        LocalDateTime burstDue = LocalDateTime.now().plusSeconds(30).truncatedTo(ChronoUnit.SECONDS);
+        scheduleBurst(users, burstDue);
+        Instant burstInstant = burstDue.atZone(ZoneId.systemDefault()).toInstant();
+        awaitBurstDrained(Duration.ofMinutes(5));
+
+        List<StubTelegram.Delivery> burstDeliveries = TELEGRAM.deliveries().stream()
+                .filter(delivery -> delivery.text().contains("burst-"))
+                .toList();
+        List<Long> lags = burstDeliveries.stream()
+                .map(delivery -> Duration.between(burstInstant, delivery.deliveredAt()).toNanos())
+                .sorted()
+                .toList();
+        Set<String> delivered = burstDeliveries.stream()
+                .map(StubTelegram.Delivery::text)
+                .collect(Collectors.toSet());
+        // The dispatcher marks a reminder notified even when Telegram answered 429, so those never arrive
+        int lost = BURST_SIZE - delivered.size();
+        Timer dispatchLag = meterRegistry.get("reminder.dispatch.lag").timer();
+
+        log.info("=== mixed CRUD/search traffic ===\n{}", crud.report(crudElapsedNanos));
+        log.info("=== notification burst ===");
+        log.info("reminders due at {}: {}, delivered: {}, lost: {}, telegram 429s: {}",
+                burstDue, BURST_SIZE, delivered.size(), lost, TELEGRAM.rejected());
+        log.info("delivery lag p50 {} ms, p99 {} ms, max {} ms",
+                LatencyRecorder.percentile(lags, 0.50) / 1_000_000,
+                LatencyRecorder.percentile(lags, 0.99) / 1_000_000,
+                lags.isEmpty() ? 0 : lags.get(lags.size() - 1) / 1_000_000);
+        log.info("reminder.dispatch.lag: count {}, mean {} ms, max {} ms",
+                dispatchLag.count(), Math.round(dispatchLag.mean(TimeUnit.MILLISECONDS)),
+                Math.round(dispatchLag.max(TimeUnit.MILLISECONDS)));
+
+        Assertions.assertThat(crud.errors()).isZero();
+        Assertions.assertThat(lost)
+                .as("burst reminders marked notified but never delivered (%d Telegram 429s)", TELEGRAM.rejected())
+                .isZero();
+    }
+
+    private List<String> createUsers() {
+        List<String> users = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String keycloakId = "load-user-" + i;
+            users.add(keycloakId);
+            rows.add(new Object[]{keycloakId, keycloakId + "@example.com", keycloakId, String.valueOf(100_000 + i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO app_user (keycloak_id, email, username, chat_id) VALUES (?, ?, ?, ?)", rows);
+        return users;
+    }
+
+    private LatencyRecorder runMixedTraffic(List<String> users) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> sessions = new ArrayList<>();
+            for (String user : users) {
+                String token = issuer.mint(user, List.of("user"), Duration.ofHours(1));
+                sessions.add(executor.submit(() -> {
+                    userSession(user, token, recorder);
+                    return null;
+                }));
+            }
+            for (Future<?> session : sessions) {
+                session.get();
+            }
+        }
+        crudElapsedNanos = System.nanoTime() - started;
+        return recorder;
+    }
+
+    private void userSession(String user, String token, LatencyRecorder recorder) throws Exception {
+        for (int i = 0; i < ITERATIONS_PER_USER; i++) {
+            String remindDate = LocalDateTime.now().plusDays(1 + ThreadLocalRandom.current().nextInt(30)).format(REMIND_DATE_FORMAT);
+
+            HttpResponse<String> created = call(recorder, "create", user, token, "POST", "/api/reminders",
+                    Map.of("title", "Task " + i, "description", "Load test reminder " + i, "remindDate", remindDate));
+            JsonNode reminder = objectMapper.readTree(created.body());
+            long id = reminder.get("id").asLong();
+
+            call(recorder, "get", user, token, "GET", "/api/reminders/" + id, null);
+            call(recorder, "update", user, token, "PUT", "/api/reminders/" + id,
+                    Map.of("title", "Task " + i + " (edited)", "description", "Edited", "remindDate", remindDate));
+            call(recorder, "search", user, token, "POST", "/api/reminders/search",
+                    Map.of("title", "Task", "page", 0, "size", 20));
+            if (i % 4 == 0) {
+                call(recorder, "delete", user, token, "DELETE", "/api/reminders/" + id, null);
+            }
+        }
+    }
+
+    private void scheduleBurst(List<String> users, LocalDateTime due) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        String remindDate = due.format(REMIND_DATE_FORMAT);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < BURST_SIZE; i++) {
+                String user = users.get(i % users.size());
+                String token = issuer.mint(user, List.of("user"), Duration.ofHours(1));
+                int index = i;
+                calls.add(executor.submit(() -> call(recorder, "burst", user, token, "POST", "/api/reminders",
+                        Map.of("title", "burst-" + index, "description", "Due together", "remindDate", remindDate))));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        }
+        Assertions.assertThat(recorder.errors()).isZero();
+        Assertions.assertThat(LocalDateTime.now()).isBefore(due);
+    }
+
+    private void awaitBurstDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Integer pending = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM reminder WHERE title LIKE 'burst-%' AND notified = false", Integer.class);
+            if (pending != null && pending == 0) {
+                return;
+            }
+            Thread.sleep(250);
+        }
+        Assertions.fail("Burst was not drained within " + timeout);
+    }
+
+    private HttpResponse<String> call(LatencyRecorder recorder, String operation, String user, String token,
+                                      String method, String path, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .header("X-Keycloak-Id", user)
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+
+        long started = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        recorder.record(operation, System.nanoTime() - started, response.statusCode() < 400);
+        return response;
+    }
+
+    @TestConfiguration
+    static class StubTelegramConfig {
+
+        @Bean
+        @Primary
+        TelegramClient stubTelegramClient() {
+            return TELEGRAM.client();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.mal.reminder.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mockito.Mockito;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.ApiResponse;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class StubTelegram {
+
+    private static final String TOO_MANY_REQUESTS = """
+            {"ok":false,"error_code":429,"description":"Too Many Requests: retry after 1","parameters":{"retry_after":1}}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Queue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double tooManyRequestsRate;
+
+    TelegramClient client() {
+        return Mockito.mock(TelegramClient.class, invocation -> {
+            if (invocation.getArguments().length == 1 && invocation.getArgument(0) instanceof SendMessage message) {
+                return send(message);
+            }
+            return null;
+        });
+    }
+
+    void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    void setTooManyRequestsRate(double tooManyRequestsRate) {
+        this.tooManyRequestsRate = tooManyRequestsRate;
+    }
+
+    Queue<Delivery> deliveries() {
+        return deliveries;
+    }
+
+    int rejected() {
+        return rejected.get();
+    }
+
+    private Object send(SendMessage message) throws Exception {
+        if (!latency.isZero()) {
+            Thread.sleep(latency.toMillis());
+        }
+        if (ThreadLocalRandom.current().nextDouble() < tooManyRequestsRate) {
+            rejected.incrementAndGet();
+            ApiResponse<Boolean> response = objectMapper.readValue(TOO_MANY_REQUESTS, new TypeReference<>() {
+            });
+            throw new TelegramApiRequestException("Error sending message", response);
+        }
+        deliveries.add(new Delivery(message.getChatId(), message.getText(), Instant.now()));
+        return null;
+    }
+
+    record Delivery(String chatId, String text, Instant deliveredAt) {
+    }
+}
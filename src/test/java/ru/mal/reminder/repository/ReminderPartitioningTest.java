@@ -0,0 +1,129 @@
+package ru.mal.reminder.repository;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ReminderPartitioningTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.queryForObject("SELECT reminder_create_partitions(DATE '2024-01-01', DATE '2024-03-01')", Integer.class);
+        jdbcTemplate.update("INSERT INTO app_user (id, keycloak_id, email, username) VALUES (1, 'user', 'user@example.com', 'user')");
+    }
+
+    @Test
+    void search_ShouldOnlyScanPartitionsInsideDateRange() {
+        // When
+        String plan = explain("SELECT * FROM reminder WHERE user_id = 1 " +
+                "AND remind >= TIMESTAMP '2024-02-01 00:00:00' AND remind < TIMESTAMP '2024-02-15 00:00:00'");
+
+        // Then
+        Assertions.assertThat(plan)
+                .contains("reminder_p2024_02")
+                .doesNotContain("reminder_p2024_01", "reminder_p2024_03", "reminder_default");
+    }
+
+    @Test
+    void dueScan_ShouldSkipFuturePartitions() {
+        // When
+        String plan = explain("SELECT id FROM reminder WHERE notified = false AND remind < TIMESTAMP '2024-01-20 09:00:00'");
+
+        // Then
+        Assertions.assertThat(plan)
+                .contains("reminder_p2024_01")
+                .doesNotContain("reminder_p2024_02", "reminder_p2024_03");
+    }
+
+    @Test
+    void createPartitions_ShouldMoveRowsOutOfDefaultPartition() {
+        // Given
+        jdbcTemplate.update("INSERT INTO reminder (title, remind, user_id) VALUES ('Later', TIMESTAMP '2025-06-10 09:00:00', 1)");
+
+        // When
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT reminder_create_partitions(DATE '2025-06-01', DATE '2025-06-01')", Integer.class);
+
+        // Then
+        Assertions.assertThat(created).isEqualTo(1);
+        Assertions.assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM reminder_p2025_06", Integer.class)).isEqualTo(1);
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM reminder_default WHERE title = 'Later'", Integer.class)).isZero();
+    }
+
+    @Test
+    void dropPartitions_ShouldRemovePartitionsBeforeMonth() {
+        // Given
+        jdbcTemplate.queryForObject("SELECT reminder_create_partitions(DATE '2023-01-01', DATE '2023-01-01')", Integer.class);
+
+        // When
+        Integer dropped = jdbcTemplate.queryForObject("SELECT reminder_drop_partitions(DATE '2023-02-01')", Integer.class);
+
+        // Then
+        Assertions.assertThat(dropped).isEqualTo(1);
+        Assertions.assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('reminder_p2023_01')::text", String.class)).isNull();
+    }
+
+    @Test
+    void dropPartitions_ShouldArchiveNotifiedRowsBeforeDropping() {
+        // Given
+        jdbcTemplate.queryForObject("SELECT reminder_create_partitions(DATE '2022-01-01', DATE '2022-01-01')", Integer.class);
+        jdbcTemplate.update("INSERT INTO reminder (id, title, remind, user_id, notified) " +
+                "VALUES (9001, 'Sent', TIMESTAMP '2022-01-10 09:00:00', 1, true)");
+
+        // When
+        Integer dropped = jdbcTemplate.queryForObject("SELECT reminder_drop_partitions(DATE '2022-02-01')", Integer.class);
+
+        // Then
+        Assertions.assertThat(dropped).isEqualTo(1);
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "SELECT title FROM reminder_history WHERE id = 9001", String.class)).isEqualTo("Sent");
+    }
+
+    @Test
+    void dropPartitions_ShouldKeepPartitionWithUnsentReminders() {
+        // Given
+        jdbcTemplate.queryForObject("SELECT reminder_create_partitions(DATE '2021-01-01', DATE '2021-01-01')", Integer.class);
+        jdbcTemplate.update("INSERT INTO reminder (id, title, remind, user_id) " +
+                "VALUES (9002, 'Unsent', TIMESTAMP '2021-01-10 09:00:00', 1)");
+
+        // When
+        Integer dropped = jdbcTemplate.queryForObject("SELECT reminder_drop_partitions(DATE '2021-02-01')", Integer.class);
+
+        // Then
+        Assertions.assertThat(dropped).isZero();
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM reminder_p2021_01 WHERE notified = false", Integer.class)).isEqualTo(1);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, String.class).stream()
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,115 @@
+package ru.mal.reminder.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.mal.reminder.model.User;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class UserSecondLevelCacheTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findByKeycloakId_ShouldBeServedFromCache_AfterFirstLookup() {
+        // Given
+        String keycloakId = save("cached-user", "100");
+        find(keycloakId);
+        statistics.clear();
+
+        // When
+        User user = find(keycloakId);
+
+        // Then
+        Assertions.assertThat(user.getChatId()).isEqualTo("100");
+        Assertions.assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+        Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void findByKeycloakId_ShouldReturnNewChatId_AfterChatIdIsUpdated() {
+        // Given
+        String keycloakId = save("relinked-user", "200");
+        find(keycloakId);
+
+        // When
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.findByKeycloakId(keycloakId).orElseThrow().setChatId("201"));
+        statistics.clear();
+        User user = find(keycloakId);
+
+        // Then
+        Assertions.assertThat(user.getChatId()).isEqualTo("201");
+        Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void findByKeycloakId_ShouldNotServeDeletedUser() {
+        // Given
+        String keycloakId = save("deleted-user", "300");
+        find(keycloakId);
+
+        // When
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.delete(userRepository.findByKeycloakId(keycloakId).orElseThrow()));
+        Optional<User> deleted = transactionTemplate.execute(status -> userRepository.findByKeycloakId(keycloakId));
+
+        // Then
+        Assertions.assertThat(deleted).isNotPresent();
+    }
+
+    private String save(String keycloakId, String chatId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User(keycloakId, keycloakId + "@example.com", keycloakId);
+            user.setChatId(chatId);
+            userRepository.save(user);
+        });
+        return keycloakId;
+    }
+
+    private User find(String keycloakId) {
+        return transactionTemplate.execute(status -> userRepository.findByKeycloakId(keycloakId).orElseThrow());
+    }
+}
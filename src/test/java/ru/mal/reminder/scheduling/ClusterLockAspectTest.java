@@ -0,0 +1,134 @@
+package ru.mal.reminder.scheduling;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ClusterLockAspectTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    private HikariDataSource firstNodePool;
+    private HikariDataSource secondNodePool;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        firstNodePool = pool();
+        secondNodePool = pool();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        firstNodePool.close();
+        secondNodePool.close();
+    }
+
+    @Test
+    void lockedJob_ShouldBeSkippedOnOtherNode_WhileFirstNodeRunsIt() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Job firstNode = node(firstNodePool, new Job(started, release));
+        Job secondNode = node(secondNodePool, new Job(null, null));
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(firstNode::run);
+        Assertions.assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        secondNode.run();
+        release.countDown();
+        running.get(10, TimeUnit.SECONDS);
+        secondNode.run();
+
+        // Then
+        Assertions.assertThat(firstNode.runs()).isEqualTo(1);
+        Assertions.assertThat(secondNode.runs()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.counter("reminder.cluster.lock", "name", "job", "outcome", "skipped").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void lock_ShouldBeReleased_WhenHoldingNodeDies() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        Job firstNode = node(firstNodePool, new Job(started, new CountDownLatch(1)));
+        Job secondNode = node(secondNodePool, new Job(null, null));
+
+        CompletableFuture.runAsync(firstNode::run);
+        Assertions.assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        firstNodePool.close();
+        // the backend notices the dropped session asynchronously
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (secondNode.runs() == 0 && System.nanoTime() < deadline) {
+            secondNode.run();
+            Thread.sleep(50);
+        }
+
+        // Then
+        Assertions.assertThat(secondNode.runs()).isEqualTo(1);
+    }
+
+    private Job node(HikariDataSource dataSource, Job job) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(job);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ClusterLockAspect(dataSource, meterRegistry));
+        return proxyFactory.getProxy();
+    }
+
+    private static HikariDataSource pool() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(POSTGRES.getJdbcUrl());
+        dataSource.setUsername(POSTGRES.getUsername());
+        dataSource.setPassword(POSTGRES.getPassword());
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+
+    static class Job {
+
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+        private final AtomicInteger runs = new AtomicInteger();
+
+        Job(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @ClusterLock("job")
+        public void run() {
+            runs.incrementAndGet();
+            if (started != null) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        public int runs() {
+            return runs.get();
+        }
+    }
+}
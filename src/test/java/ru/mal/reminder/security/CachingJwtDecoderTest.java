@@ -0,0 +1,83 @@
+package ru.mal.reminder.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.assertj.core.api.Assertions;
+import org.mockito.Mockito;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new CachingJwtDecoder(delegate, Clock.fixed(NOW, ZoneOffset.UTC), 100);
+    }
+
+    @Test
+    void decode_ShouldReuseValidatedToken_UntilItExpires() {
+        // Given
+        Jwt jwt = createJwt("token-1", NOW.plusSeconds(300));
+        Mockito.when(delegate.decode("token-1")).thenReturn(jwt);
+
+        // When
+        Jwt first = decoder.decode("token-1");
+        Jwt second = decoder.decode("token-1");
+
+        // Then
+        Assertions.assertThat(first).isSameAs(jwt);
+        Assertions.assertThat(second).isSameAs(jwt);
+        Mockito.verify(delegate, Mockito.times(1)).decode("token-1");
+    }
+
+    @Test
+    void decode_ShouldNotCacheToken_WhenItIsAlreadyExpired() {
+        // Given
+        Jwt jwt = createJwt("token-2", NOW.minusSeconds(1));
+        Mockito.when(delegate.decode("token-2")).thenReturn(jwt);
+
+        // When
+        decoder.decode("token-2");
+        decoder.decode("token-2");
+
+        // Then
+        Mockito.verify(delegate, Mockito.times(2)).decode("token-2");
+    }
+
+    @Test
+    void decode_ShouldNotCacheFailures() {
+        // Given
+        Mockito.when(delegate.decode("bad-token")).thenThrow(new BadJwtException("Invalid signature"));
+
+        // When & Then
+        Assertions.assertThatThrownBy(() -> decoder.decode("bad-token")).isInstanceOf(BadJwtException.class);
+        Assertions.assertThatThrownBy(() -> decoder.decode("bad-token")).isInstanceOf(BadJwtException.class);
+        Mockito.verify(delegate, Mockito.times(2)).decode("bad-token");
+    }
+
+    private Jwt createJwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user-id-123")
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
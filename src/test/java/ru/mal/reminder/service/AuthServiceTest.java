@@ -1,12 +1,18 @@
 package ru.mal.reminder.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.mal.reminder.client.KeycloakAdminTokenManager;
 import ru.mal.reminder.client.KeycloakClient;
+import ru.mal.reminder.client.KeycloakUnavailableException;
 import ru.mal.reminder.dto.TokenResponse;
 import ru.mal.reminder.dto.UserLoginRequest;
 import ru.mal.reminder.dto.keycloak.KeycloakCredentialsRepresentation;
@@ -14,6 +20,8 @@ import ru.mal.reminder.dto.keycloak.KeycloakUserRepresentation;
 import ru.mal.reminder.dto.registration.UserRegistrationRequest;
 import ru.mal.reminder.model.User;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import org.assertj.core.api.Assertions;
@@ -26,28 +34,36 @@ class AuthServiceTest {
     @Mock
     private KeycloakClient keycloakClient;
 
+    @Mock
+    private KeycloakAdminTokenManager adminTokenManager;
+
     @Mock
     private MessageSource messageSource;
 
     @Mock
     private UserService userService;
 
-    @InjectMocks
     private AuthService authService;
 
     private final String ADMIN_TOKEN = "admin-token";
     private final String USER_ID = "user-id-123";
     private final String SUCCESS_MESSAGE = "Registration successful";
     private final String ERROR_MESSAGE = "Registration error";
+    private final Object USER_ROLE_REPRESENTATION = new Object();
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthService(keycloakClient, adminTokenManager, messageSource, userService, Runnable::run);
+    }
 
     @Test
     void registerUser_ShouldRegisterUserSuccessfully() {
         // Given
         UserRegistrationRequest request = createRegistrationRequest();
-        TokenResponse adminTokenResponse = createTokenResponse(ADMIN_TOKEN);
         User user = createUser();
 
-        Mockito.when(keycloakClient.adminLogin()).thenReturn(adminTokenResponse);
+        Mockito.when(adminTokenManager.getAccessToken()).thenReturn(ADMIN_TOKEN);
+        Mockito.when(keycloakClient.getRealmRole("user", ADMIN_TOKEN)).thenReturn(USER_ROLE_REPRESENTATION);
         Mockito.when(keycloakClient.registerUser(ArgumentMatchers.anyString(), ArgumentMatchers.any(KeycloakUserRepresentation.class)))
                 .thenReturn(USER_ID);
         Mockito.when(userService.findOrCreateUser(USER_ID, request.getEmail(), request.getUsername()))
@@ -61,16 +77,15 @@ class AuthServiceTest {
         // Then
         Assertions.assertThat(result).isEqualTo(SUCCESS_MESSAGE);
 
-        Mockito.verify(keycloakClient).adminLogin();
-        Mockito.verify(keycloakClient).registerUser(ADMIN_TOKEN,
-                new KeycloakUserRepresentation(
-                        request.getUsername(),
-                        request.getEmail(),
-                        true,
-                        false
-                ));
-        Mockito.verify(keycloakClient).resetUserPassword(ArgumentMatchers.eq(USER_ID), ArgumentMatchers.any(KeycloakCredentialsRepresentation.class), ArgumentMatchers.eq(ADMIN_TOKEN));
-        Mockito.verify(keycloakClient).assignUserRole(USER_ID, "user", ADMIN_TOKEN);
+        ArgumentCaptor<KeycloakUserRepresentation> userCaptor = ArgumentCaptor.forClass(KeycloakUserRepresentation.class);
+        Mockito.verify(adminTokenManager).getAccessToken();
+        Mockito.verify(keycloakClient, Mockito.never()).adminLogin();
+        Mockito.verify(keycloakClient).registerUser(ArgumentMatchers.eq(ADMIN_TOKEN), userCaptor.capture());
+        Assertions.assertThat(userCaptor.getValue().getUsername()).isEqualTo(request.getUsername());
+        Assertions.assertThat(userCaptor.getValue().getEmail()).isEqualTo(request.getEmail());
+        Assertions.assertThat(userCaptor.getValue().getCredentials())
+                .containsExactly(new KeycloakCredentialsRepresentation("password", request.getPassword(), false));
+        Mockito.verify(keycloakClient).assignUserRoles(USER_ID, List.of(USER_ROLE_REPRESENTATION), ADMIN_TOKEN);
         Mockito.verify(userService).findOrCreateUser(USER_ID, request.getEmail(), request.getUsername());
     }
 
@@ -79,7 +94,7 @@ class AuthServiceTest {
         // Given
         UserRegistrationRequest request = createRegistrationRequest();
 
-        Mockito.when(keycloakClient.adminLogin()).thenThrow(new RuntimeException("Keycloak unavailable"));
+        Mockito.when(adminTokenManager.getAccessToken()).thenThrow(new RuntimeException("Keycloak unavailable"));
         Mockito.when(messageSource.getMessage(ArgumentMatchers.eq("auth.register.error"), ArgumentMatchers.eq(null), ArgumentMatchers.any(Locale.class)))
                 .thenReturn(ERROR_MESSAGE);
 
@@ -89,7 +104,7 @@ class AuthServiceTest {
                 .hasMessage(ERROR_MESSAGE)
                 .hasCauseInstanceOf(RuntimeException.class);
 
-        Mockito.verify(keycloakClient).adminLogin();
+        Mockito.verify(adminTokenManager).getAccessToken();
         Mockito.verify(keycloakClient, Mockito.never()).registerUser(ArgumentMatchers.anyString(), ArgumentMatchers.any(KeycloakUserRepresentation.class));
         Mockito.verify(userService, Mockito.never()).findOrCreateUser(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
     }
@@ -98,9 +113,8 @@ class AuthServiceTest {
     void registerUser_ShouldThrowException_WhenUserRegistrationFails() {
         // Given
         UserRegistrationRequest request = createRegistrationRequest();
-        TokenResponse adminTokenResponse = createTokenResponse(ADMIN_TOKEN);
 
-        Mockito.when(keycloakClient.adminLogin()).thenReturn(adminTokenResponse);
+        Mockito.when(adminTokenManager.getAccessToken()).thenReturn(ADMIN_TOKEN);
         Mockito.when(keycloakClient.registerUser(ArgumentMatchers.anyString(), ArgumentMatchers.any(KeycloakUserRepresentation.class)))
                 .thenThrow(new RuntimeException("Registration failed"));
         Mockito.when(messageSource.getMessage(ArgumentMatchers.eq("auth.register.error"), ArgumentMatchers.eq(null), ArgumentMatchers.any(Locale.class)))
@@ -112,12 +126,78 @@ class AuthServiceTest {
                 .hasMessage(ERROR_MESSAGE)
                 .hasCauseInstanceOf(RuntimeException.class);
 
-        Mockito.verify(keycloakClient).adminLogin();
+        Mockito.verify(adminTokenManager).getAccessToken();
         Mockito.verify(keycloakClient).registerUser(ArgumentMatchers.anyString(), ArgumentMatchers.any(KeycloakUserRepresentation.class));
-        Mockito.verify(keycloakClient, Mockito.never()).resetUserPassword(ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.anyString());
+        Mockito.verify(keycloakClient, Mockito.never()).assignUserRoles(ArgumentMatchers.anyString(), ArgumentMatchers.anyList(), ArgumentMatchers.anyString());
         Mockito.verify(userService, Mockito.never()).findOrCreateUser(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
     }
 
+    @Test
+    void registerUser_ShouldCancelRoleLookup_WhenUserRegistrationFails() {
+        // Given
+        UserRegistrationRequest request = createRegistrationRequest();
+        List<Runnable> queued = new ArrayList<>();
+        authService = new AuthService(keycloakClient, adminTokenManager, messageSource, userService, queued::add);
+
+        Mockito.when(adminTokenManager.getAccessToken()).thenReturn(ADMIN_TOKEN);
+        Mockito.when(keycloakClient.registerUser(ArgumentMatchers.anyString(), ArgumentMatchers.any(KeycloakUserRepresentation.class)))
+                .thenThrow(new RuntimeException("Registration failed"));
+        Mockito.when(messageSource.getMessage(ArgumentMatchers.eq("auth.register.error"), ArgumentMatchers.eq(null), ArgumentMatchers.any(Locale.class)))
+                .thenReturn(ERROR_MESSAGE);
+
+        // When
+        Assertions.assertThatThrownBy(() -> authService.registerUser(request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage(ERROR_MESSAGE);
+        queued.forEach(Runnable::run);
+
+        // Then
+        Assertions.assertThat(queued).hasSize(1);
+        Mockito.verify(keycloakClient, Mockito.never()).getRealmRole(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void registerUser_ShouldInvalidateAdminToken_WhenKeycloakRejectsIt() {
+        // Given
+        UserRegistrationRequest request = createRegistrationRequest();
+
+        Mockito.when(adminTokenManager.getAccessToken()).thenReturn(ADMIN_TOKEN);
+        Mockito.when(keycloakClient.registerUser(ArgumentMatchers.anyString(), ArgumentMatchers.any(KeycloakUserRepresentation.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", HttpHeaders.EMPTY, null, null));
+        Mockito.when(messageSource.getMessage(ArgumentMatchers.eq("auth.register.error"), ArgumentMatchers.eq(null), ArgumentMatchers.any(Locale.class)))
+                .thenReturn(ERROR_MESSAGE);
+
+        // When & Then
+        Assertions.assertThatThrownBy(() -> authService.registerUser(request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage(ERROR_MESSAGE);
+
+        Mockito.verify(adminTokenManager).invalidate();
+    }
+
+    @Test
+    void registerUser_ShouldInvalidateAdminToken_WhenRoleLookupIsRejected() {
+        // Given
+        UserRegistrationRequest request = createRegistrationRequest();
+
+        Mockito.when(adminTokenManager.getAccessToken()).thenReturn(ADMIN_TOKEN);
+        Mockito.when(keycloakClient.getRealmRole("user", ADMIN_TOKEN))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", HttpHeaders.EMPTY, null, null));
+        Mockito.when(keycloakClient.registerUser(ArgumentMatchers.anyString(), ArgumentMatchers.any(KeycloakUserRepresentation.class)))
+                .thenReturn(USER_ID);
+        Mockito.when(messageSource.getMessage(ArgumentMatchers.eq("auth.register.error"), ArgumentMatchers.eq(null), ArgumentMatchers.any(Locale.class)))
+                .thenReturn(ERROR_MESSAGE);
+
+        // When & Then
+        Assertions.assertThatThrownBy(() -> authService.registerUser(request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage(ERROR_MESSAGE)
+                .hasCauseInstanceOf(HttpClientErrorException.Unauthorized.class);
+
+        Mockito.verify(adminTokenManager).invalidate();
+        Mockito.verify(keycloakClient, Mockito.never()).assignUserRoles(ArgumentMatchers.anyString(), ArgumentMatchers.anyList(), ArgumentMatchers.anyString());
+    }
+
     @Test
     void login_ShouldReturnTokenResponse_WhenCredentialsAreValid() {
         // Given
@@ -155,6 +235,22 @@ class AuthServiceTest {
         Mockito.verify(keycloakClient).userLogin(request.getUsername(), request.getPassword());
     }
 
+    @Test
+    void login_ShouldPropagateUnavailable_WhenKeycloakCallIsRejected() {
+        // Given
+        UserLoginRequest request = new UserLoginRequest("testuser", "password");
+        KeycloakUnavailableException unavailable = new KeycloakUnavailableException("Unavailable", null);
+
+        Mockito.when(keycloakClient.userLogin(request.getUsername(), request.getPassword()))
+                .thenThrow(unavailable);
+
+        // When & Then
+        Assertions.assertThatThrownBy(() -> authService.login(request))
+                .isSameAs(unavailable);
+
+        Mockito.verifyNoInteractions(messageSource);
+    }
+
     private UserRegistrationRequest createRegistrationRequest() {
         UserRegistrationRequest request = new UserRegistrationRequest();
         request.setUsername("testuser");
@@ -0,0 +1,155 @@
+package ru.mal.reminder.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.mal.reminder.client.KeycloakAdminTokenManager;
+import ru.mal.reminder.client.KeycloakClient;
+import ru.mal.reminder.dto.keycloak.KeycloakPartialImportRequest;
+import ru.mal.reminder.dto.keycloak.KeycloakPartialImportResponse;
+import ru.mal.reminder.dto.registration.BulkRegistrationResult;
+import ru.mal.reminder.dto.registration.BulkRegistrationStatus;
+import ru.mal.reminder.dto.registration.UserRegistrationRequest;
+import ru.mal.reminder.model.User;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.assertj.core.api.Assertions;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+@ExtendWith(MockitoExtension.class)
+class BulkRegistrationServiceTest {
+
+    @Mock
+    private KeycloakClient keycloakClient;
+
+    @Mock
+    private KeycloakAdminTokenManager adminTokenManager;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private MessageSource messageSource;
+
+    private BulkRegistrationService bulkRegistrationService;
+
+    private final String ADMIN_TOKEN = "admin-token";
+    private final String ERROR_MESSAGE = "Registration error";
+    private final String INVALID_MESSAGE = "Invalid user";
+
+    @BeforeEach
+    void setUp() {
+        bulkRegistrationService = new BulkRegistrationService(keycloakClient, adminTokenManager, userService, messageSource, 2);
+    }
+
+    @Test
+    void registerUsers_ShouldImportUsersInChunks_AndCreateAppUsers() {
+        // Given
+        List<UserRegistrationRequest> requests = List.of(
+                createRequest("alice"), createRequest("Bob"), createRequest("carol"));
+
+        Mockito.when(adminTokenManager.getAccessToken()).thenReturn(ADMIN_TOKEN);
+        Mockito.when(keycloakClient.partialImport(ArgumentMatchers.eq(ADMIN_TOKEN), ArgumentMatchers.any(KeycloakPartialImportRequest.class)))
+                .thenReturn(createResponse(
+                        new KeycloakPartialImportResponse.Result("ADDED", "USER", "alice", "id-alice"),
+                        new KeycloakPartialImportResponse.Result("SKIPPED", "USER", "bob", "id-bob")))
+                .thenReturn(createResponse(
+                        new KeycloakPartialImportResponse.Result("ADDED", "USER", "carol", "id-carol")));
+
+        // When
+        List<BulkRegistrationResult> results = bulkRegistrationService.registerUsers(requests);
+
+        // Then
+        Assertions.assertThat(results)
+                .extracting(BulkRegistrationResult::status)
+                .containsExactly(BulkRegistrationStatus.CREATED, BulkRegistrationStatus.SKIPPED, BulkRegistrationStatus.CREATED);
+        Assertions.assertThat(results)
+                .extracting(BulkRegistrationResult::keycloakId)
+                .containsExactly("id-alice", "id-bob", "id-carol");
+
+        ArgumentCaptor<KeycloakPartialImportRequest> importCaptor = ArgumentCaptor.forClass(KeycloakPartialImportRequest.class);
+        Mockito.verify(keycloakClient, Mockito.times(2)).partialImport(ArgumentMatchers.eq(ADMIN_TOKEN), importCaptor.capture());
+        KeycloakPartialImportRequest firstChunk = importCaptor.getAllValues().get(0);
+        Assertions.assertThat(firstChunk.getIfResourceExists()).isEqualTo("SKIP");
+        Assertions.assertThat(firstChunk.getUsers()).hasSize(2);
+        Assertions.assertThat(firstChunk.getUsers().get(0).getRealmRoles()).containsExactly("user");
+        Assertions.assertThat(firstChunk.getUsers().get(0).getCredentials()).hasSize(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> usersCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(userService, Mockito.times(2)).createUsers(usersCaptor.capture());
+        Assertions.assertThat(usersCaptor.getAllValues().get(0))
+                .extracting(User::getKeycloakId)
+                .containsExactly("id-alice", "id-bob");
+    }
+
+    @Test
+    void registerUsers_ShouldRejectInvalidAndDuplicateEntries_WithoutCallingKeycloak() {
+        // Given
+        UserRegistrationRequest missingPassword = createRequest("dave");
+        missingPassword.setPassword(" ");
+        List<UserRegistrationRequest> requests = List.of(missingPassword, createRequest("erin"), createRequest("ERIN"));
+
+        Mockito.when(adminTokenManager.getAccessToken()).thenReturn(ADMIN_TOKEN);
+        Mockito.when(keycloakClient.partialImport(ArgumentMatchers.eq(ADMIN_TOKEN), ArgumentMatchers.any(KeycloakPartialImportRequest.class)))
+                .thenReturn(createResponse(new KeycloakPartialImportResponse.Result("ADDED", "USER", "erin", "id-erin")));
+        Mockito.when(messageSource.getMessage(ArgumentMatchers.eq("auth.register.bulk.invalid"), ArgumentMatchers.eq(null), ArgumentMatchers.any(Locale.class)))
+                .thenReturn(INVALID_MESSAGE);
+
+        // When
+        List<BulkRegistrationResult> results = bulkRegistrationService.registerUsers(requests);
+
+        // Then
+        Assertions.assertThat(results)
+                .extracting(BulkRegistrationResult::status)
+                .containsExactly(BulkRegistrationStatus.FAILED, BulkRegistrationStatus.CREATED, BulkRegistrationStatus.FAILED);
+        Assertions.assertThat(results.get(0).error()).isEqualTo(INVALID_MESSAGE);
+        Mockito.verify(keycloakClient, Mockito.times(1)).partialImport(ArgumentMatchers.anyString(), ArgumentMatchers.any(KeycloakPartialImportRequest.class));
+    }
+
+    @Test
+    void registerUsers_ShouldFailWholeChunk_AndInvalidateToken_WhenKeycloakRejectsToken() {
+        // Given
+        List<UserRegistrationRequest> requests = List.of(createRequest("frank"), createRequest("grace"));
+
+        Mockito.when(adminTokenManager.getAccessToken()).thenReturn(ADMIN_TOKEN);
+        Mockito.when(keycloakClient.partialImport(ArgumentMatchers.eq(ADMIN_TOKEN), ArgumentMatchers.any(KeycloakPartialImportRequest.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", HttpHeaders.EMPTY, null, null));
+        Mockito.when(messageSource.getMessage(ArgumentMatchers.eq("auth.register.error"), ArgumentMatchers.eq(null), ArgumentMatchers.any(Locale.class)))
+                .thenReturn(ERROR_MESSAGE);
+
+        // When
+        List<BulkRegistrationResult> results = bulkRegistrationService.registerUsers(requests);
+
+        // Then
+        Assertions.assertThat(results)
+                .extracting(BulkRegistrationResult::status)
+                .containsOnly(BulkRegistrationStatus.FAILED);
+        Mockito.verify(adminTokenManager).invalidate();
+        Mockito.verify(userService, Mockito.never()).createUsers(ArgumentMatchers.anyList());
+    }
+
+    private UserRegistrationRequest createRequest(String username) {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("password123");
+        return request;
+    }
+
+    private KeycloakPartialImportResponse createResponse(KeycloakPartialImportResponse.Result... results) {
+        KeycloakPartialImportResponse response = new KeycloakPartialImportResponse();
+        response.setResults(List.of(results));
+        return response;
+    }
+}
@@ -0,0 +1,147 @@
+package ru.mal.reminder.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.mal.reminder.config.DispatchOwnershipProperties;
+import ru.mal.reminder.repository.DispatchNodeRepository;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.mockito.Mockito;
+
+@ExtendWith(MockitoExtension.class)
+class DispatchOwnershipServiceTest {
+
+    private static final int BUCKETS = 256;
+
+    @Mock
+    private DispatchNodeRepository dispatchNodeRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DispatchOwnershipService ownershipService;
+
+    @BeforeEach
+    void setUp() {
+        ownershipService = createService("node-a");
+    }
+
+    @Test
+    void ownedBuckets_ShouldBeEmpty_BeforeFirstHeartbeat() {
+        // When / Then
+        Assertions.assertThat(ownershipService.ownedBuckets()).isEmpty();
+    }
+
+    @Test
+    void heartbeat_ShouldOwnEveryBucket_WhenNodeIsAlone() {
+        // Given
+        Mockito.when(dispatchNodeRepository.findAllNodeIds()).thenReturn(List.of("node-a"));
+
+        // When
+        ownershipService.heartbeat();
+
+        // Then
+        Mockito.verify(dispatchNodeRepository).heartbeat("node-a");
+        Mockito.verify(dispatchNodeRepository).deleteExpired(30);
+        Assertions.assertThat(ownershipService.ownedBuckets()).hasSize(BUCKETS);
+    }
+
+    @Test
+    void join_ShouldOwnBucketsAndRegisterGauge_AfterInitialHeartbeat() {
+        // Given
+        Mockito.when(dispatchNodeRepository.findAllNodeIds()).thenReturn(List.of("node-a"));
+        Assertions.assertThat(meterRegistry.find("reminder.dispatch.buckets.owned").gauge()).isNull();
+
+        // When
+        ownershipService.join();
+
+        // Then
+        Mockito.verify(dispatchNodeRepository).heartbeat("node-a");
+        Assertions.assertThat(ownershipService.ownedBuckets()).hasSize(BUCKETS);
+        Assertions.assertThat(meterRegistry.get("reminder.dispatch.buckets.owned").gauge().value()).isEqualTo((double) BUCKETS);
+    }
+
+    @Test
+    void join_ShouldHeartbeatOnlyOnce_WhenCalledAgain() {
+        // Given
+        Mockito.when(dispatchNodeRepository.findAllNodeIds()).thenReturn(List.of("node-a"));
+
+        // When
+        ownershipService.join();
+        ownershipService.join();
+
+        // Then
+        Mockito.verify(dispatchNodeRepository, Mockito.times(1)).heartbeat("node-a");
+    }
+
+    @Test
+    void heartbeat_ShouldSplitBucketsWithoutOverlap_WhenNodeJoins() {
+        // Given
+        DispatchOwnershipService otherNode = createService("node-b");
+        Mockito.when(dispatchNodeRepository.findAllNodeIds()).thenReturn(List.of("node-a", "node-b"));
+
+        // When
+        ownershipService.heartbeat();
+        otherNode.heartbeat();
+
+        // Then
+        Set<Integer> all = new HashSet<>(ownershipService.ownedBuckets());
+        all.addAll(otherNode.ownedBuckets());
+        Assertions.assertThat(ownershipService.ownedBuckets()).isNotEmpty().doesNotContainAnyElementsOf(otherNode.ownedBuckets());
+        Assertions.assertThat(all).hasSize(BUCKETS);
+    }
+
+    @Test
+    void heartbeat_ShouldTakeBackBuckets_WhenOtherNodeLeaves() {
+        // Given
+        Mockito.when(dispatchNodeRepository.findAllNodeIds())
+                .thenReturn(List.of("node-a", "node-b"))
+                .thenReturn(List.of("node-a"));
+        ownershipService.heartbeat();
+        List<Integer> shared = ownershipService.ownedBuckets();
+
+        // When
+        ownershipService.heartbeat();
+
+        // Then
+        Assertions.assertThat(shared).hasSizeLessThan(BUCKETS);
+        Assertions.assertThat(ownershipService.ownedBuckets()).hasSize(BUCKETS).containsAll(shared);
+        Assertions.assertThat(meterRegistry.get("reminder.dispatch.rebalance").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void heartbeat_ShouldNotRebalance_WhenMembershipIsUnchanged() {
+        // Given
+        Mockito.when(dispatchNodeRepository.findAllNodeIds()).thenReturn(List.of("node-a", "node-b"));
+
+        // When
+        ownershipService.heartbeat();
+        ownershipService.heartbeat();
+
+        // Then
+        Assertions.assertThat(meterRegistry.get("reminder.dispatch.rebalance").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void leave_ShouldRemoveOwnMembership() {
+        // When
+        ownershipService.leave();
+
+        // Then
+        Mockito.verify(dispatchNodeRepository).deleteById("node-a");
+    }
+
+    private DispatchOwnershipService createService(String nodeId) {
+        DispatchOwnershipProperties properties = new DispatchOwnershipProperties(
+                true, nodeId, BUCKETS, 64, Duration.ofSeconds(30));
+        return new DispatchOwnershipService(dispatchNodeRepository, properties, meterRegistry);
+    }
+}
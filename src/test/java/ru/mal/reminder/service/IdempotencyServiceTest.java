@@ -0,0 +1,101 @@
+package ru.mal.reminder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.DuplicateKeyException;
+import ru.mal.reminder.dto.reminder.ReminderResponse;
+import ru.mal.reminder.repository.IdempotencyRecordRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.mockito.Mockito;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private MessageSource messageSource;
+
+    private IdempotencyService idempotencyService;
+
+    private final String KEYCLOAK_ID = "test-keycloak-id";
+    private final String IDEMPOTENCY_KEY = "retry-key";
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        idempotencyService = new IdempotencyService(
+                idempotencyRecordRepository, objectMapper, messageSource, Clock.systemDefaultZone(), Duration.ofHours(24), 100);
+    }
+
+    @Test
+    void execute_ShouldReplayFromCache_WhenKeyWasAlreadyProcessed() {
+        // Given
+        AtomicInteger invocations = new AtomicInteger();
+
+        // When
+        ReminderResponse first = idempotencyService.execute(KEYCLOAK_ID, IDEMPOTENCY_KEY, ReminderResponse.class,
+                () -> createResponse(invocations.incrementAndGet()));
+        ReminderResponse second = idempotencyService.execute(KEYCLOAK_ID, IDEMPOTENCY_KEY, ReminderResponse.class,
+                () -> createResponse(invocations.incrementAndGet()));
+
+        // Then
+        Assertions.assertThat(invocations.get()).isEqualTo(1);
+        Assertions.assertThat(second.getId()).isEqualTo(first.getId());
+        Mockito.verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_ShouldReplayStoredResponse_WhenKeyWasUsedOnAnotherNode() {
+        // Given
+        String stored = "{\"id\":7,\"title\":\"Stored\",\"description\":null,\"remindDate\":\"2024-01-01 10:00:00\",\"version\":0}";
+        Mockito.when(idempotencyRecordRepository.findResponse(
+                        Mockito.eq(KEYCLOAK_ID), Mockito.eq(IDEMPOTENCY_KEY), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Optional.of(stored));
+
+        // When
+        ReminderResponse response = idempotencyService.execute(KEYCLOAK_ID, IDEMPOTENCY_KEY, ReminderResponse.class,
+                () -> {
+                    throw new DuplicateKeyException("duplicate");
+                });
+
+        // Then
+        Assertions.assertThat(response.getId()).isEqualTo(7L);
+        Assertions.assertThat(response.getTitle()).isEqualTo("Stored");
+    }
+
+    @Test
+    void remember_ShouldThrowDuplicateKeyException_WhenKeyIsAlreadyStored() {
+        // Given
+        Mockito.when(idempotencyRecordRepository.insertIfAbsent(
+                        Mockito.eq(KEYCLOAK_ID), Mockito.eq(IDEMPOTENCY_KEY), Mockito.anyString(),
+                        Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        // When & Then
+        Assertions.assertThatThrownBy(() -> idempotencyService.remember(KEYCLOAK_ID, IDEMPOTENCY_KEY, createResponse(1)))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    private ReminderResponse createResponse(long id) {
+        ReminderResponse response = new ReminderResponse();
+        response.setId(id);
+        response.setTitle("Test Reminder");
+        response.setRemindDate(LocalDateTime.of(2024, 1, 1, 10, 0));
+        response.setVersion(0L);
+        return response;
+    }
+}
@@ -0,0 +1,103 @@
+package ru.mal.reminder.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.mal.reminder.config.ArchiveProperties;
+import ru.mal.reminder.repository.ReminderRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.mockito.Mockito;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderArchiveServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 3, 0);
+
+    @Mock
+    private ReminderRepository reminderRepository;
+
+    private final Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    @Test
+    void archiveNotified_ShouldArchiveInBatches_UntilBatchComesBackShort() {
+        // Given
+        ReminderArchiveService archiveService = createService(10);
+        LocalDateTime before = NOW.minusDays(30);
+
+        Mockito.when(reminderRepository.archiveNotifiedBefore(before, 2, NOW))
+                .thenReturn(2)
+                .thenReturn(2)
+                .thenReturn(1);
+        Mockito.when(reminderRepository.findMaxReplicationLagMillis()).thenReturn(0.0);
+
+        // When
+        archiveService.archiveNotified();
+
+        // Then
+        Mockito.verify(reminderRepository, Mockito.times(3)).archiveNotifiedBefore(before, 2, NOW);
+    }
+
+    @Test
+    void archiveNotified_ShouldStop_WhenReplicaFallsBehind() {
+        // Given
+        ReminderArchiveService archiveService = createService(10);
+
+        Mockito.when(reminderRepository.archiveNotifiedBefore(Mockito.any(), Mockito.anyInt(), Mockito.any()))
+                .thenReturn(2);
+        Mockito.when(reminderRepository.findMaxReplicationLagMillis()).thenReturn(12_000.0);
+
+        // When
+        archiveService.archiveNotified();
+
+        // Then
+        Mockito.verify(reminderRepository, Mockito.times(1))
+                .archiveNotifiedBefore(Mockito.any(), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    void archiveNotified_ShouldKeepArchiving_WhenReplicationLagIsNotVisible() {
+        // Given
+        ReminderArchiveService archiveService = createService(3);
+
+        Mockito.when(reminderRepository.archiveNotifiedBefore(Mockito.any(), Mockito.anyInt(), Mockito.any()))
+                .thenReturn(2);
+        Mockito.when(reminderRepository.findMaxReplicationLagMillis()).thenReturn(null);
+
+        // When
+        archiveService.archiveNotified();
+        archiveService.archiveNotified();
+
+        // Then
+        Mockito.verify(reminderRepository, Mockito.times(6))
+                .archiveNotifiedBefore(Mockito.any(), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    void archiveNotified_ShouldRespectBatchLimitPerRun() {
+        // Given
+        ReminderArchiveService archiveService = createService(3);
+
+        Mockito.when(reminderRepository.archiveNotifiedBefore(Mockito.any(), Mockito.anyInt(), Mockito.any()))
+                .thenReturn(2);
+        Mockito.when(reminderRepository.findMaxReplicationLagMillis()).thenReturn(0.0);
+
+        // When
+        archiveService.archiveNotified();
+
+        // Then
+        Mockito.verify(reminderRepository, Mockito.times(3))
+                .archiveNotifiedBefore(Mockito.any(), Mockito.anyInt(), Mockito.any());
+    }
+
+    private ReminderArchiveService createService(int maxBatchesPerRun) {
+        ArchiveProperties properties = new ArchiveProperties(
+                Duration.ofDays(30), 2, Duration.ZERO, maxBatchesPerRun, Duration.ofSeconds(5));
+        return new ReminderArchiveService(reminderRepository, clock, properties);
+    }
+}
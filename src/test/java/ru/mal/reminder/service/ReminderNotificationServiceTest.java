@@ -1,19 +1,34 @@
 package ru.mal.reminder.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.mal.reminder.config.DispatcherProperties;
+import ru.mal.reminder.config.DispatcherProperties.StalePolicy;
 import ru.mal.reminder.model.Reminder;
 import ru.mal.reminder.model.User;
 import ru.mal.reminder.repository.ReminderRepository;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.assertj.core.api.Assertions;
 import org.mockito.Mockito;
@@ -30,9 +45,22 @@ class ReminderNotificationServiceTest {
     @Mock
     private MessageSource messageSource;
 
-    @InjectMocks
+    @Mock
+    private DispatchOwnershipService ownership;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final LocalDateTime CLAIMED_UNTIL = NOW.plusMinutes(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
     private ReminderNotificationService notificationService;
 
+    @BeforeEach
+    void setUp() {
+        notificationService = createService(StalePolicy.SEND);
+    }
+
     @Test
     void checkDueReminders_ShouldSendNotifications_WhenDueRemindersExist() {
         // Given
@@ -44,8 +72,12 @@ class ReminderNotificationServiceTest {
 
         List<Reminder> dueReminders = List.of(reminder1, reminder2);
 
-        Mockito.when(reminderRepository.findByRemindDateBeforeAndNotifiedFalse(Mockito.any(LocalDateTime.class)))
-                .thenReturn(dueReminders);
+        Mockito.when(reminderRepository.claimDueReminderIds(Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        Mockito.when(reminderRepository.findAllWithUserByIdInAndRemindDateBefore(List.of(1L, 2L), NOW)).thenReturn(dueReminders);
+        Mockito.when(reminderRepository.markNotified(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.anyLong()))
+                .thenReturn(1);
 
         Mockito.when(messageSource.getMessage(
                         Mockito.eq("reminder.notification"),
@@ -61,15 +93,19 @@ class ReminderNotificationServiceTest {
 
         // Then
         Mockito.verify(telegramService, Mockito.times(2)).sendMessage(Mockito.anyString(), Mockito.anyString());
-        Mockito.verify(reminderRepository, Mockito.times(2)).save(Mockito.any(Reminder.class));
+        Mockito.verify(reminderRepository).markNotified(1L, reminder1.getRemindDate(), 0L);
+        Mockito.verify(reminderRepository).markNotified(2L, reminder2.getRemindDate(), 0L);
         Assertions.assertThat(reminder1.getNotified()).isTrue();
         Assertions.assertThat(reminder2.getNotified()).isTrue();
+        Assertions.assertThat(meterRegistry.get("reminder.dispatch.batch.size").summary().totalAmount()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("reminder.dispatch.lag").timer().count()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("reminder.dispatch.duration").timer().count()).isEqualTo(1);
     }
 
     @Test
     void checkDueReminders_ShouldNotSendNotifications_WhenNoDueReminders() {
         // Given
-        Mockito.when(reminderRepository.findByRemindDateBeforeAndNotifiedFalse(Mockito.any(LocalDateTime.class)))
+        Mockito.when(reminderRepository.claimDueReminderIds(Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.anyInt(), Mockito.anyInt()))
                 .thenReturn(List.of());
 
         // When
@@ -77,10 +113,247 @@ class ReminderNotificationServiceTest {
 
         // Then
         Mockito.verify(telegramService, Mockito.never()).sendMessage(Mockito.anyString(), Mockito.anyString());
-        Mockito.verify(reminderRepository, Mockito.never()).save(Mockito.any(Reminder.class));
+        Mockito.verify(reminderRepository, Mockito.never()).findAllWithUserByIdInAndRemindDateBefore(Mockito.any(), Mockito.any());
+        Mockito.verify(reminderRepository, Mockito.never()).markNotified(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.anyLong());
         Mockito.verify(messageSource, Mockito.never()).getMessage(Mockito.anyString(), Mockito.any(), Mockito.any());
     }
 
+    @Test
+    void checkDueReminders_ShouldMeasureLagAgainstClock() {
+        // Given
+        User user = new User();
+        user.setChatId("12345");
+        Reminder reminder = createReminder(1L, "Reminder 1", user);
+        reminder.setRemindDate(NOW.minusSeconds(90));
+
+        Mockito.when(reminderRepository.claimDueReminderIds(NOW, CLAIMED_UNTIL, 50, 500))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of());
+        Mockito.when(reminderRepository.findAllWithUserByIdInAndRemindDateBefore(List.of(1L), NOW)).thenReturn(List.of(reminder));
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.notification"), Mockito.any(Object[].class), Mockito.any(Locale.class)))
+                .thenReturn("message");
+
+        // When
+        notificationService.checkDueReminders();
+
+        // Then
+        Assertions.assertThat(meterRegistry.get("reminder.dispatch.lag").timer().totalTime(TimeUnit.SECONDS))
+                .isEqualTo(90.0);
+    }
+
+    @Test
+    void checkDueReminders_ShouldEmitDispatchBatchEvent_WhenRecordingIsEnabled() throws Exception {
+        // Given
+        User user = new User();
+        user.setChatId("12345");
+
+        Mockito.when(reminderRepository.claimDueReminderIds(Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of());
+        Mockito.when(reminderRepository.findAllWithUserByIdInAndRemindDateBefore(List.of(1L), NOW))
+                .thenReturn(List.of(createReminder(1L, "Reminder 1", user)));
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.notification"), Mockito.any(Object[].class), Mockito.any(Locale.class)))
+                .thenReturn("message");
+
+        Path dump = Files.createTempFile("dispatch", ".jfr");
+        List<RecordedEvent> events;
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("ru.mal.reminder.DispatchBatch");
+            recording.start();
+            notificationService.checkDueReminders();
+            recording.stop();
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+
+        // Then
+        Assertions.assertThat(events).hasSize(1);
+        Assertions.assertThat(events.get(0).getInt("rowsClaimed")).isEqualTo(1);
+        Assertions.assertThat(events.get(0).getInt("sent")).isEqualTo(1);
+    }
+
+    @Test
+    void checkDueReminders_ShouldDrainBacklogInChunks() {
+        // Given
+        User user = new User();
+        user.setChatId("12345");
+
+        Mockito.when(reminderRepository.claimDueReminderIds(Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of(2L))
+                .thenReturn(List.of());
+        Mockito.when(reminderRepository.findAllWithUserByIdInAndRemindDateBefore(List.of(1L), NOW))
+                .thenReturn(List.of(createReminder(1L, "Reminder 1", user)));
+        Mockito.when(reminderRepository.findAllWithUserByIdInAndRemindDateBefore(List.of(2L), NOW))
+                .thenReturn(List.of(createReminder(2L, "Reminder 2", user)));
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.notification"), Mockito.any(Object[].class), Mockito.any(Locale.class)))
+                .thenReturn("message");
+
+        // When
+        notificationService.checkDueReminders();
+
+        // Then
+        Mockito.verify(reminderRepository, Mockito.times(3))
+                .claimDueReminderIds(Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verify(telegramService, Mockito.times(2)).sendMessage(Mockito.anyString(), Mockito.anyString());
+        Assertions.assertThat(meterRegistry.get("reminder.dispatch.batch.size").summary().count()).isEqualTo(2);
+    }
+
+    @Test
+    void checkDueReminders_ShouldSkipStaleReminders_WhenPolicyIsSkip() {
+        // Given
+        notificationService = createService(StalePolicy.SKIP);
+        User user = new User();
+        user.setId(7L);
+        user.setChatId("12345");
+
+        Reminder stale = createReminder(1L, "Stale", user);
+        stale.setRemindDate(NOW.minusDays(2));
+        Reminder fresh = createReminder(2L, "Fresh", user);
+
+        Mockito.when(reminderRepository.claimDueReminderIds(Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        Mockito.when(reminderRepository.findAllWithUserByIdInAndRemindDateBefore(List.of(1L, 2L), NOW)).thenReturn(List.of(stale, fresh));
+        Mockito.when(reminderRepository.markStaleNotified(7L, NOW.minusHours(6), NOW, CLAIMED_UNTIL)).thenReturn(3);
+        Mockito.when(reminderRepository.markNotified(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.anyLong()))
+                .thenReturn(1);
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.notification"), Mockito.any(Object[].class), Mockito.any(Locale.class)))
+                .thenReturn("message");
+
+        // When
+        notificationService.checkDueReminders();
+
+        // Then
+        Mockito.verify(telegramService, Mockito.times(1)).sendMessage("12345", "message");
+        Mockito.verify(reminderRepository, Mockito.never()).markNotified(Mockito.eq(1L), Mockito.any(LocalDateTime.class), Mockito.anyLong());
+        Assertions.assertThat(fresh.getNotified()).isTrue();
+        Assertions.assertThat(meterRegistry.get("reminder.dispatch.stale").tag("policy", "skip").counter().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void checkDueReminders_ShouldSendOneDigestPerUser_WhenPolicyIsDigest() {
+        // Given
+        notificationService = createService(StalePolicy.DIGEST);
+        User user = new User();
+        user.setId(7L);
+        user.setChatId("12345");
+
+        Reminder first = createReminder(1L, "First", user);
+        first.setRemindDate(NOW.minusDays(2));
+        Reminder second = createReminder(2L, "Second", user);
+        second.setRemindDate(NOW.minusDays(1));
+
+        Mockito.when(reminderRepository.claimDueReminderIds(Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        Mockito.when(reminderRepository.findAllWithUserByIdInAndRemindDateBefore(List.of(1L, 2L), NOW)).thenReturn(List.of(first, second));
+        Mockito.when(reminderRepository.markStaleNotified(7L, NOW.minusHours(6), NOW, CLAIMED_UNTIL)).thenReturn(12);
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.digest.header"), Mockito.any(Object[].class), Mockito.any(Locale.class)))
+                .thenReturn("header");
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.digest.item"), Mockito.any(Object[].class), Mockito.any(Locale.class)))
+                .thenReturn("item");
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.digest.more"), Mockito.any(Object[].class), Mockito.any(Locale.class)))
+                .thenReturn("more");
+
+        // When
+        notificationService.checkDueReminders();
+
+        // Then
+        Mockito.verify(telegramService).sendMessage("12345", "header\nitem\nitem\nmore");
+        Mockito.verify(messageSource).getMessage(Mockito.eq("reminder.digest.more"), Mockito.eq(new Object[]{10}), Mockito.any(Locale.class));
+        Mockito.verify(reminderRepository, Mockito.never()).markNotified(Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.anyLong());
+    }
+
+    @Test
+    void checkDueReminders_ShouldClaimOnlyOwnedBuckets_WhenOwnershipIsEnabled() {
+        // Given
+        notificationService = createService(StalePolicy.SEND, ownership);
+
+        Mockito.when(ownership.bucketCount()).thenReturn(4);
+        Mockito.when(ownership.ownedBuckets()).thenReturn(List.of(1, 3));
+        Mockito.when(reminderRepository.claimDueReminderIdsInBuckets(NOW, CLAIMED_UNTIL, 50, 500, 4, List.of(1, 3)))
+                .thenReturn(List.of());
+
+        // When
+        notificationService.checkDueReminders();
+
+        // Then
+        InOrder inOrder = Mockito.inOrder(ownership, reminderRepository);
+        inOrder.verify(ownership).join();
+        inOrder.verify(reminderRepository).claimDueReminderIdsInBuckets(NOW, CLAIMED_UNTIL, 50, 500, 4, List.of(1, 3));
+        Mockito.verify(reminderRepository, Mockito.never())
+                .claimDueReminderIds(Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    void checkDueReminders_ShouldClaimNothing_WhenNodeOwnsNoBuckets() {
+        // Given
+        notificationService = createService(StalePolicy.SEND, ownership);
+
+        Mockito.when(ownership.bucketCount()).thenReturn(4);
+        Mockito.when(ownership.ownedBuckets()).thenReturn(List.of());
+
+        // When
+        notificationService.checkDueReminders();
+
+        // Then
+        Mockito.verifyNoInteractions(reminderRepository, telegramService);
+    }
+
+    @Test
+    void checkDueReminders_ShouldMarkNotifiedOnlyAfterSending() {
+        // Given
+        User user = new User();
+        user.setChatId("12345");
+        Reminder reminder = createReminder(1L, "Reminder 1", user);
+
+        Mockito.when(reminderRepository.claimDueReminderIds(NOW, CLAIMED_UNTIL, 50, 500))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of());
+        Mockito.when(reminderRepository.findAllWithUserByIdInAndRemindDateBefore(List.of(1L), NOW)).thenReturn(List.of(reminder));
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.notification"), Mockito.any(Object[].class), Mockito.any(Locale.class)))
+                .thenReturn("message");
+        Mockito.when(reminderRepository.markNotified(1L, reminder.getRemindDate(), 0L)).thenReturn(1);
+
+        // When
+        notificationService.checkDueReminders();
+
+        // Then
+        InOrder inOrder = Mockito.inOrder(reminderRepository, telegramService);
+        inOrder.verify(reminderRepository).claimDueReminderIds(NOW, CLAIMED_UNTIL, 50, 500);
+        inOrder.verify(telegramService).sendMessage("12345", "message");
+        inOrder.verify(reminderRepository).markNotified(1L, reminder.getRemindDate(), 0L);
+        Assertions.assertThat(reminder.getNotified()).isTrue();
+    }
+
+    @Test
+    void checkDueReminders_ShouldLeaveReminderUnsent_WhenEditedWhileSending() {
+        // Given
+        User user = new User();
+        user.setChatId("12345");
+        Reminder reminder = createReminder(1L, "Reminder 1", user);
+
+        Mockito.when(reminderRepository.claimDueReminderIds(NOW, CLAIMED_UNTIL, 50, 500))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of());
+        Mockito.when(reminderRepository.findAllWithUserByIdInAndRemindDateBefore(List.of(1L), NOW)).thenReturn(List.of(reminder));
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.notification"), Mockito.any(Object[].class), Mockito.any(Locale.class)))
+                .thenReturn("message");
+        Mockito.when(reminderRepository.markNotified(1L, reminder.getRemindDate(), 0L)).thenReturn(0);
+
+        // When
+        notificationService.checkDueReminders();
+
+        // Then
+        Assertions.assertThat(reminder.getNotified()).isFalse();
+    }
+
     @Test
     void sendTelegramNotification_ShouldFormatMessageCorrectly() {
         // Given
@@ -112,14 +385,25 @@ class ReminderNotificationServiceTest {
         Assertions.assertThat(sentMessage).isEqualTo(expectedMessage);
     }
 
+    private ReminderNotificationService createService(StalePolicy stalePolicy) {
+        return createService(stalePolicy, null);
+    }
+
+    private ReminderNotificationService createService(StalePolicy stalePolicy, DispatchOwnershipService ownership) {
+        DispatcherProperties properties = new DispatcherProperties(500, 50, Duration.ofMinutes(5), Duration.ofHours(6), stalePolicy, 10);
+        return new ReminderNotificationService(reminderRepository, telegramService, messageSource, meterRegistry, clock,
+                TransactionOperations.withoutTransaction(), properties, Optional.ofNullable(ownership));
+    }
+
     private Reminder createReminder(Long id, String title, User user) {
         Reminder reminder = new Reminder();
         reminder.setId(id);
         reminder.setTitle(title);
         reminder.setDescription("Description for " + title);
-        reminder.setRemindDate(LocalDateTime.now().minusMinutes(5));
+        reminder.setRemindDate(NOW.minusMinutes(5));
         reminder.setUser(user);
         reminder.setNotified(false);
+        reminder.setVersion(0L);
         return reminder;
     }
 }
\ No newline at end of file
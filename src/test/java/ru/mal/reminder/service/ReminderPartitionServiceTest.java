@@ -0,0 +1,48 @@
+package ru.mal.reminder.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.mal.reminder.repository.ReminderRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.mockito.Mockito;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderPartitionServiceTest {
+
+    @Mock
+    private ReminderRepository reminderRepository;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-05-17T10:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void maintainPartitions_ShouldPrepareUpcomingMonths_AndKeepOldOnes_WhenRetentionIsDisabled() {
+        // Given
+        ReminderPartitionService partitionService = new ReminderPartitionService(reminderRepository, clock, 3, 0);
+
+        // When
+        partitionService.maintainPartitions();
+
+        // Then
+        Mockito.verify(reminderRepository).createPartitions(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 8, 1));
+        Mockito.verify(reminderRepository, Mockito.never()).dropPartitionsBefore(Mockito.any());
+    }
+
+    @Test
+    void maintainPartitions_ShouldDropPartitionsOutsideRetention() {
+        // Given
+        ReminderPartitionService partitionService = new ReminderPartitionService(reminderRepository, clock, 3, 12);
+
+        // When
+        partitionService.maintainPartitions();
+
+        // Then
+        Mockito.verify(reminderRepository).dropPartitionsBefore(LocalDate.of(2023, 5, 1));
+    }
+}
@@ -0,0 +1,115 @@
+package ru.mal.reminder.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import ru.mal.reminder.dto.reminder.ReminderSetVersion;
+import ru.mal.reminder.dto.reminder.SearchRequest;
+import ru.mal.reminder.model.Reminder;
+import ru.mal.reminder.model.User;
+import ru.mal.reminder.repository.ReminderRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+@Tag("benchmark")
+@ExtendWith(MockitoExtension.class)
+class ReminderSearchCoalescingBenchmarkTest {
+
+    private static final int CONCURRENT_CALLERS = 64;
+    private static final int ROUNDS = 20;
+    private static final long QUERY_LATENCY_MS = 25;
+    private static final ReminderSetVersion SET_VERSION = new ReminderSetVersion(0L, 0L, 0L);
+
+    @Mock
+    private ReminderRepository reminderRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private MessageSource messageSource;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @InjectMocks
+    private ReminderService reminderService;
+
+    @Test
+    void searchPage_ConcurrentIdenticalSearches() throws Exception {
+        // Given
+        AtomicInteger queries = new AtomicInteger();
+        Mockito.when(userService.findByKeycloakId(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> Optional.of(createUser(invocation.getArgument(0))));
+        Mockito.when(reminderRepository.findBy(ArgumentMatchers.<Specification<Reminder>>any(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    queries.incrementAndGet();
+                    Thread.sleep(QUERY_LATENCY_MS);
+                    return new SliceImpl<Reminder>(List.of());
+                });
+
+        // When
+        long distinctNanos = runRounds(false);
+        int distinctQueries = queries.getAndSet(0);
+        long identicalNanos = runRounds(true);
+        int identicalQueries = queries.get();
+
+        // Then
+        System.out.printf("single-flight search: %d callers x %d rounds, %d ms per query%n",
+                CONCURRENT_CALLERS, ROUNDS, QUERY_LATENCY_MS);
+        System.out.printf("  distinct users : %6d queries, %6d ms%n", distinctQueries, distinctNanos / 1_000_000);
+        System.out.printf("  identical users: %6d queries, %6d ms%n", identicalQueries, identicalNanos / 1_000_000);
+
+        Assertions.assertThat(distinctQueries).isEqualTo(CONCURRENT_CALLERS * ROUNDS);
+        Assertions.assertThat(identicalQueries).isLessThan(distinctQueries / 4);
+    }
+
+    private long runRounds(boolean identical) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CALLERS);
+        long started = System.nanoTime();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> calls = new ArrayList<>();
+                for (int caller = 0; caller < CONCURRENT_CALLERS; caller++) {
+                    String keycloakId = identical ? "dashboard-user" : "user-" + caller;
+                    calls.add(executor.submit(() -> {
+                        start.await();
+                        return reminderService.searchPage(new SearchRequest(), keycloakId, SET_VERSION);
+                    }));
+                }
+                start.countDown();
+                for (Future<?> call : calls) {
+                    call.get();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return System.nanoTime() - started;
+    }
+
+    private User createUser(String keycloakId) {
+        User user = new User();
+        user.setId((long) keycloakId.hashCode());
+        user.setKeycloakId(keycloakId);
+        return user;
+    }
+}
@@ -6,15 +6,32 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import ru.mal.reminder.dto.reminder.BatchOperationRequest;
+import ru.mal.reminder.dto.reminder.BatchOperationResult;
+import ru.mal.reminder.dto.reminder.BatchOperationType;
+import ru.mal.reminder.dto.reminder.PageResponse;
 import ru.mal.reminder.dto.reminder.ReminderRequest;
 import ru.mal.reminder.dto.reminder.ReminderResponse;
+import ru.mal.reminder.dto.reminder.ReminderSetVersion;
+import ru.mal.reminder.dto.reminder.SearchRequest;
 import ru.mal.reminder.model.Reminder;
+import ru.mal.reminder.model.ReminderWithHistory;
 import ru.mal.reminder.model.User;
 import ru.mal.reminder.repository.ReminderRepository;
+import ru.mal.reminder.repository.ReminderWithHistoryRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.assertj.core.api.Assertions;
 import org.mockito.Mockito;
@@ -31,12 +48,19 @@ class ReminderServiceTest {
     @Mock
     private MessageSource messageSource;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private ReminderWithHistoryRepository reminderWithHistoryRepository;
+
     @InjectMocks
     private ReminderService reminderService;
 
     private final String KEYCLOAK_ID = "test-keycloak-id";
     private final Long USER_ID = 1L;
     private final Long REMINDER_ID = 1L;
+    private final ReminderSetVersion SET_VERSION = new ReminderSetVersion(1L, 1L, 0L);
 
     @Test
     void createReminder_ShouldCreateReminder_WhenUserExists() {
@@ -80,6 +104,23 @@ class ReminderServiceTest {
         Mockito.verify(reminderRepository, Mockito.never()).save(Mockito.any(Reminder.class));
     }
 
+    @Test
+    void createReminder_ShouldRememberResponse_WhenIdempotencyKeyIsGiven() {
+        // Given
+        User user = createUser();
+        ReminderRequest request = createReminderRequest();
+        Reminder savedReminder = createReminder(user);
+
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(reminderRepository.save(Mockito.any(Reminder.class))).thenReturn(savedReminder);
+
+        // When
+        ReminderResponse response = reminderService.createReminder(request, KEYCLOAK_ID, "retry-key");
+
+        // Then
+        Mockito.verify(idempotencyService).remember(KEYCLOAK_ID, "retry-key", response);
+    }
+
     @Test
     void updateReminder_ShouldUpdateReminder_WhenReminderExistsAndUserOwnsIt() {
         // Given
@@ -88,15 +129,13 @@ class ReminderServiceTest {
         request.setTitle("Updated Title");
         request.setDescription("Updated Description");
 
-        Reminder existingReminder = createReminder(user);
         Reminder updatedReminder = createReminder(user);
         updatedReminder.setTitle("Updated Title");
         updatedReminder.setDescription("Updated Description");
 
-        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
-        Mockito.when(reminderRepository.findByIdAndUserId(REMINDER_ID, USER_ID))
-                .thenReturn(Optional.of(existingReminder));
-        Mockito.when(reminderRepository.save(Mockito.any(Reminder.class))).thenReturn(updatedReminder);
+        Mockito.when(reminderRepository.updateByIdAndKeycloakId(
+                        REMINDER_ID, KEYCLOAK_ID, "Updated Title", "Updated Description", request.getRemindDate()))
+                .thenReturn(Optional.of(updatedReminder));
 
         // When
         ReminderResponse response = reminderService.updateReminder(REMINDER_ID, request, KEYCLOAK_ID);
@@ -106,8 +145,33 @@ class ReminderServiceTest {
         Assertions.assertThat(response.getTitle()).isEqualTo("Updated Title");
         Assertions.assertThat(response.getDescription()).isEqualTo("Updated Description");
 
-        Mockito.verify(reminderRepository).findByIdAndUserId(REMINDER_ID, USER_ID);
-        Mockito.verify(reminderRepository).save(existingReminder);
+        Mockito.verifyNoInteractions(userService);
+        Mockito.verify(reminderRepository, Mockito.never()).findByIdAndUserId(Mockito.anyLong(), Mockito.anyLong());
+        Mockito.verify(reminderRepository, Mockito.never()).save(Mockito.any(Reminder.class));
+    }
+
+    @Test
+    void updateReminder_ShouldThrowException_WhenExpectedVersionDoesNotMatch() {
+        // Given
+        User user = createUser();
+        ReminderRequest request = createReminderRequest();
+        Reminder existingReminder = createReminder(user);
+        existingReminder.setVersion(3L);
+        String errorMessage = "Reminder was modified by another request";
+
+        Mockito.when(reminderRepository.updateByIdAndKeycloakIdAndVersion(
+                        REMINDER_ID, KEYCLOAK_ID, 2L, request.getTitle(), request.getDescription(), request.getRemindDate()))
+                .thenReturn(Optional.empty());
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(reminderRepository.findByIdAndUserId(REMINDER_ID, USER_ID))
+                .thenReturn(Optional.of(existingReminder));
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.version.conflict"), Mockito.eq(null), Mockito.any(Locale.class)))
+                .thenReturn(errorMessage);
+
+        // When & Then
+        Assertions.assertThatThrownBy(() -> reminderService.updateReminder(REMINDER_ID, request, KEYCLOAK_ID, 2L))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessage(errorMessage);
     }
 
     @Test
@@ -117,8 +181,10 @@ class ReminderServiceTest {
         ReminderRequest request = createReminderRequest();
         String errorMessage = "Reminder not found";
 
+        Mockito.when(reminderRepository.updateByIdAndKeycloakId(
+                        REMINDER_ID, KEYCLOAK_ID, request.getTitle(), request.getDescription(), request.getRemindDate()))
+                .thenReturn(Optional.empty());
         Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
-        Mockito.when(reminderRepository.findByIdAndUserId(REMINDER_ID, USER_ID)).thenReturn(Optional.empty());
         Mockito.when(messageSource.getMessage(Mockito.eq("reminder.not.found"), Mockito.eq(null), Mockito.any(Locale.class)))
                 .thenReturn(errorMessage);
 
@@ -126,27 +192,37 @@ class ReminderServiceTest {
         Assertions.assertThatThrownBy(() -> reminderService.updateReminder(REMINDER_ID, request, KEYCLOAK_ID))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage(errorMessage);
-
-        Mockito.verify(reminderRepository).findByIdAndUserId(REMINDER_ID, USER_ID);
-        Mockito.verify(reminderRepository, Mockito.never()).save(Mockito.any(Reminder.class));
     }
 
     @Test
     void deleteReminder_ShouldDeleteReminder_WhenReminderExistsAndUserOwnsIt() {
         // Given
-        User user = createUser();
-        Reminder reminder = createReminder(user);
-
-        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
-        Mockito.when(reminderRepository.findByIdAndUserId(REMINDER_ID, USER_ID))
-                .thenReturn(Optional.of(reminder));
+        Mockito.when(reminderRepository.deleteByIdAndKeycloakId(REMINDER_ID, KEYCLOAK_ID)).thenReturn(1);
 
         // When
         reminderService.deleteReminder(REMINDER_ID, KEYCLOAK_ID);
 
         // Then
-        Mockito.verify(reminderRepository).findByIdAndUserId(REMINDER_ID, USER_ID);
-        Mockito.verify(reminderRepository).delete(reminder);
+        Mockito.verify(reminderRepository).deleteByIdAndKeycloakId(REMINDER_ID, KEYCLOAK_ID);
+        Mockito.verifyNoInteractions(userService);
+        Mockito.verify(reminderRepository, Mockito.never()).findByIdAndUserId(Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    @Test
+    void deleteReminder_ShouldThrowException_WhenNoRowWasDeleted() {
+        // Given
+        User user = createUser();
+        String errorMessage = "Reminder not found";
+
+        Mockito.when(reminderRepository.deleteByIdAndKeycloakId(REMINDER_ID, KEYCLOAK_ID)).thenReturn(0);
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.not.found"), Mockito.eq(null), Mockito.any(Locale.class)))
+                .thenReturn(errorMessage);
+
+        // When & Then
+        Assertions.assertThatThrownBy(() -> reminderService.deleteReminder(REMINDER_ID, KEYCLOAK_ID))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage(errorMessage);
     }
 
     @Test
@@ -170,6 +246,205 @@ class ReminderServiceTest {
         Mockito.verify(reminderRepository).findByIdAndUserId(REMINDER_ID, USER_ID);
     }
 
+    @Test
+    void processBatch_ShouldLoadReferencedRemindersOnce_AndReportPerOperationStatus() {
+        // Given
+        User user = createUser();
+        Reminder existingReminder = createReminder(user);
+
+        BatchOperationRequest create = createBatchOperation(BatchOperationType.CREATE, null);
+        create.setReminder(createReminderRequest());
+        BatchOperationRequest update = createBatchOperation(BatchOperationType.UPDATE, REMINDER_ID);
+        update.setReminder(createReminderRequest());
+        BatchOperationRequest missingDelete = createBatchOperation(BatchOperationType.DELETE, 42L);
+        String notFoundMessage = "Reminder not found";
+
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(reminderRepository.findAllByIdInAndUserId(Set.of(REMINDER_ID, 42L), USER_ID))
+                .thenReturn(List.of(existingReminder));
+        Mockito.when(messageSource.getMessage(Mockito.eq("reminder.not.found"), Mockito.eq(null), Mockito.any(Locale.class)))
+                .thenReturn(notFoundMessage);
+
+        // When
+        List<BatchOperationResult> results = reminderService.processBatch(List.of(create, update, missingDelete), KEYCLOAK_ID);
+
+        // Then
+        Assertions.assertThat(results).extracting(BatchOperationResult::status)
+                .containsExactly(201, 200, 404);
+        Assertions.assertThat(results.get(2).error()).isEqualTo(notFoundMessage);
+
+        Mockito.verify(userService, Mockito.times(1)).findByKeycloakId(KEYCLOAK_ID);
+        Mockito.verify(reminderRepository, Mockito.times(1)).findAllByIdInAndUserId(Mockito.anyCollection(), Mockito.eq(USER_ID));
+        Mockito.verify(reminderRepository).saveAll(Mockito.anyList());
+        Mockito.verify(reminderRepository, Mockito.never()).deleteAllByIdInBatch(Mockito.any());
+        Mockito.verify(reminderRepository).flush();
+    }
+
+    @Test
+    void processBatch_ShouldDeleteInOneStatement_WhenDeletingSeveralReminders() {
+        // Given
+        User user = createUser();
+        Reminder first = createReminder(user);
+        Reminder second = createReminder(user);
+        second.setId(2L);
+
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(reminderRepository.findAllByIdInAndUserId(Set.of(REMINDER_ID, 2L), USER_ID))
+                .thenReturn(List.of(first, second));
+
+        // When
+        List<BatchOperationResult> results = reminderService.processBatch(List.of(
+                createBatchOperation(BatchOperationType.DELETE, REMINDER_ID),
+                createBatchOperation(BatchOperationType.DELETE, 2L)
+        ), KEYCLOAK_ID);
+
+        // Then
+        Assertions.assertThat(results).extracting(BatchOperationResult::status)
+                .containsExactly(204, 204);
+        Mockito.verify(reminderRepository).deleteAllByIdInBatch(Set.of(REMINDER_ID, 2L));
+    }
+
+    @Test
+    void searchPage_ShouldNotJoinInFlightSearch_WhenSetVersionChanged() throws Exception {
+        // Given
+        User user = createUser();
+        CountDownLatch firstQueryStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstQuery = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(reminderRepository.findBy(Mockito.<Specification<Reminder>>any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    if (queries.incrementAndGet() == 1) {
+                        firstQueryStarted.countDown();
+                        releaseFirstQuery.await(5, TimeUnit.SECONDS);
+                    }
+                    return new SliceImpl<Reminder>(List.of());
+                });
+
+        CompletableFuture<?> beforeWrite = CompletableFuture.supplyAsync(() -> reminderService.searchPage(
+                new SearchRequest(), KEYCLOAK_ID, new ReminderSetVersion(1L, 1L, 0L)));
+        Assertions.assertThat(firstQueryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<?> afterWrite = CompletableFuture.supplyAsync(() -> reminderService.searchPage(
+                new SearchRequest(), KEYCLOAK_ID, new ReminderSetVersion(2L, 3L, 0L)));
+
+        // Then
+        afterWrite.get(5, TimeUnit.SECONDS);
+        releaseFirstQuery.countDown();
+        beforeWrite.get(5, TimeUnit.SECONDS);
+        Assertions.assertThat(queries.get()).isEqualTo(2);
+    }
+
+    @Test
+    void searchPage_ShouldReadHistoryView_WhenArchivedRemindersAreIncluded() {
+        // Given
+        User user = createUser();
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setIncludeArchived(true);
+        ReminderWithHistory archived = Mockito.mock(ReminderWithHistory.class);
+
+        Mockito.when(archived.getId()).thenReturn(REMINDER_ID);
+        Mockito.when(archived.getArchived()).thenReturn(true);
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(reminderWithHistoryRepository.findBy(Mockito.<Specification<ReminderWithHistory>>any(), Mockito.any()))
+                .thenReturn(new SliceImpl<>(List.of(archived)));
+
+        // When
+        PageResponse<ReminderResponse> page = reminderService.searchPage(searchRequest, KEYCLOAK_ID, SET_VERSION);
+
+        // Then
+        Assertions.assertThat(page.content()).singleElement()
+                .satisfies(response -> {
+                    Assertions.assertThat(response.getId()).isEqualTo(REMINDER_ID);
+                    Assertions.assertThat(response.isArchived()).isTrue();
+                });
+        Mockito.verifyNoInteractions(reminderRepository);
+    }
+
+    @Test
+    void searchPage_ShouldNotJoinActiveSearch_WhenArchivedRemindersAreIncluded() throws Exception {
+        // Given
+        User user = createUser();
+        SearchRequest archivedSearch = new SearchRequest();
+        archivedSearch.setIncludeArchived(true);
+        CountDownLatch activeQueryStarted = new CountDownLatch(1);
+        CountDownLatch releaseActiveQuery = new CountDownLatch(1);
+
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(reminderRepository.findBy(Mockito.<Specification<Reminder>>any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    activeQueryStarted.countDown();
+                    releaseActiveQuery.await(5, TimeUnit.SECONDS);
+                    return new SliceImpl<Reminder>(List.of());
+                });
+        Mockito.when(reminderWithHistoryRepository.findBy(Mockito.<Specification<ReminderWithHistory>>any(), Mockito.any()))
+                .thenAnswer(invocation -> new SliceImpl<ReminderWithHistory>(List.of()));
+
+        CompletableFuture<?> activeOnly = CompletableFuture.supplyAsync(() ->
+                reminderService.searchPage(new SearchRequest(), KEYCLOAK_ID, SET_VERSION));
+        Assertions.assertThat(activeQueryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<?> withArchived = CompletableFuture.supplyAsync(() ->
+                reminderService.searchPage(archivedSearch, KEYCLOAK_ID, SET_VERSION));
+
+        // Then
+        withArchived.get(5, TimeUnit.SECONDS);
+        releaseActiveQuery.countDown();
+        activeOnly.get(5, TimeUnit.SECONDS);
+        Mockito.verify(reminderRepository).findBy(Mockito.<Specification<Reminder>>any(), Mockito.any());
+        Mockito.verify(reminderWithHistoryRepository)
+                .findBy(Mockito.<Specification<ReminderWithHistory>>any(), Mockito.any());
+    }
+
+    @Test
+    void searchPage_ShouldTakeTotalFromCountQuery_WhenPageIsFull() {
+        // Given
+        User user = createUser();
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setSize(1);
+        Reminder reminder = new Reminder();
+        reminder.setId(REMINDER_ID);
+
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(reminderRepository.findBy(Mockito.<Specification<Reminder>>any(), Mockito.any()))
+                .thenReturn(new SliceImpl<>(List.of(reminder)));
+        Mockito.when(reminderRepository.count(Mockito.<Specification<Reminder>>any())).thenReturn(3L);
+
+        // When
+        PageResponse<ReminderResponse> page = reminderService.searchPage(searchRequest, KEYCLOAK_ID, SET_VERSION);
+
+        // Then
+        Assertions.assertThat(page.totalElements()).isEqualTo(3L);
+        Assertions.assertThat(page.totalPages()).isEqualTo(3);
+    }
+
+    @Test
+    void searchPage_ShouldSkipCountQuery_WhenFirstPageIsNotFull() {
+        // Given
+        User user = createUser();
+
+        Mockito.when(userService.findByKeycloakId(KEYCLOAK_ID)).thenReturn(Optional.of(user));
+        Mockito.when(reminderRepository.findBy(Mockito.<Specification<Reminder>>any(), Mockito.any()))
+                .thenReturn(new SliceImpl<Reminder>(List.of()));
+
+        // When
+        PageResponse<ReminderResponse> page = reminderService.searchPage(new SearchRequest(), KEYCLOAK_ID, SET_VERSION);
+
+        // Then
+        Assertions.assertThat(page.totalElements()).isZero();
+        Mockito.verify(reminderRepository, Mockito.never()).count(Mockito.<Specification<Reminder>>any());
+    }
+
+    private BatchOperationRequest createBatchOperation(BatchOperationType type, Long id) {
+        BatchOperationRequest operation = new BatchOperationRequest();
+        operation.setType(type);
+        operation.setId(id);
+        return operation;
+    }
+
     private User createUser() {
         User user = new User();
         user.setId(USER_ID);
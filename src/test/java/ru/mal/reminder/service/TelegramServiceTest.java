@@ -0,0 +1,56 @@
+package ru.mal.reminder.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+import org.assertj.core.api.Assertions;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+@ExtendWith(MockitoExtension.class)
+class TelegramServiceTest {
+
+    @Mock
+    private TelegramClient telegramClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TelegramService telegramService;
+
+    @BeforeEach
+    void setUp() {
+        telegramService = new TelegramService(telegramClient, meterRegistry);
+    }
+
+    @Test
+    void sendMessage_ShouldRecordSuccess_WhenMessageIsSent() throws Exception {
+        // When
+        telegramService.sendMessage("12345", "Hello");
+
+        // Then
+        Mockito.verify(telegramClient).execute(ArgumentMatchers.any(SendMessage.class));
+        Assertions.assertThat(meterRegistry.get("telegram.send")
+                .tags("outcome", "success", "code", "none").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sendMessage_ShouldRecordError_WhenTelegramRejectsMessage() throws Exception {
+        // Given
+        Mockito.when(telegramClient.execute(ArgumentMatchers.any(SendMessage.class)))
+                .thenThrow(new TelegramApiException("Bad Request: chat not found"));
+
+        // When
+        telegramService.sendMessage("12345", "Hello");
+
+        // Then
+        Assertions.assertThat(meterRegistry.get("telegram.send")
+                .tags("outcome", "error", "code", "TelegramApiException").timer().count()).isEqualTo(1);
+    }
+}
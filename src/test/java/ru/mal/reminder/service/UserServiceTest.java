@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.mal.reminder.model.User;
 import ru.mal.reminder.repository.UserRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.assertj.core.api.Assertions;
@@ -106,6 +107,31 @@ class UserServiceTest {
         Mockito.verify(userRepository).findByKeycloakId(KEYCLOAK_ID);
     }
 
+    @Test
+    void createUsers_ShouldInsertUsersInBatch() {
+        // Given
+        List<User> users = List.of(createUser());
+
+        Mockito.when(userRepository.insertIgnoringExisting(users)).thenReturn(1);
+
+        // When
+        int inserted = userService.createUsers(users);
+
+        // Then
+        Assertions.assertThat(inserted).isEqualTo(1);
+        Mockito.verify(userRepository).insertIgnoringExisting(users);
+    }
+
+    @Test
+    void createUsers_ShouldSkipRepository_WhenListIsEmpty() {
+        // When
+        int inserted = userService.createUsers(List.of());
+
+        // Then
+        Assertions.assertThat(inserted).isZero();
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
     private User createUser() {
         User user = new User();
         user.setId(1L);
@@ -0,0 +1,73 @@
+package ru.mal.reminder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 1024;
+
+    @Test
+    void ownerOf_ShouldBeIndependentOfMemberOrder() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("c", "a", "b"), 64);
+
+        // When / Then
+        IntStream.range(0, KEYS).mapToObj(key -> "bucket-" + key)
+                .forEach(key -> Assertions.assertThat(reordered.ownerOf(key)).isEqualTo(ring.ownerOf(key)));
+    }
+
+    @Test
+    void ownerOf_ShouldSpreadKeysAcrossNodes() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), 64);
+
+        // When
+        Map<String, Integer> owned = owners(ring);
+
+        // Then
+        Assertions.assertThat(owned).containsOnlyKeys("a", "b", "c", "d");
+        Assertions.assertThat(owned.values()).allSatisfy(count -> Assertions.assertThat(count).isBetween(KEYS / 8, KEYS / 2));
+    }
+
+    @Test
+    void ownerOf_ShouldOnlyMoveKeysToJoiningNode() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 64);
+
+        // When
+        List<String> moved = IntStream.range(0, KEYS).mapToObj(key -> "bucket-" + key)
+                .filter(key -> !before.ownerOf(key).equals(after.ownerOf(key)))
+                .toList();
+
+        // Then
+        Assertions.assertThat(moved).isNotEmpty()
+                .allSatisfy(key -> Assertions.assertThat(after.ownerOf(key)).isEqualTo("d"));
+        Assertions.assertThat(moved.size()).isLessThan(KEYS / 2);
+    }
+
+    @Test
+    void ownerOf_ShouldReturnNull_WhenRingIsEmpty() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 64);
+
+        // When / Then
+        Assertions.assertThat(ring.ownerOf("bucket-0")).isNull();
+    }
+
+    private static Map<String, Integer> owners(ConsistentHashRing ring) {
+        Map<String, Integer> owned = new HashMap<>();
+        for (int key = 0; key < KEYS; key++) {
+            owned.merge(ring.ownerOf("bucket-" + key), 1, Integer::sum);
+        }
+        return owned;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.mal.reminder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_ShouldShareOneLoad_WhenCallsForSameKeyOverlap() throws Exception {
+        // Given
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // When
+        List<Future<Integer>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            await(releaseLoad);
+            return 42;
+        })));
+        Assertions.assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("key", loads::incrementAndGet)));
+        }
+        Thread.sleep(100);
+        releaseLoad.countDown();
+
+        // Then
+        for (Future<Integer> result : results) {
+            Assertions.assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        Assertions.assertThat(loads.get()).isEqualTo(1);
+        Assertions.assertThat(singleFlight.inFlightCount()).isZero();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ShouldLoadAgain_WhenPreviousCallHasFinished() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        singleFlight.execute("key", loads::incrementAndGet);
+        singleFlight.execute("key", loads::incrementAndGet);
+
+        // Then
+        Assertions.assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_ShouldPropagateFailure_AndForgetTheKey() {
+        // When & Then
+        Assertions.assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+                    throw new IllegalStateException("database down");
+                }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("database down");
+        Assertions.assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}